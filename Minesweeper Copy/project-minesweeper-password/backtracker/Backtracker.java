@@ -1,5 +1,9 @@
 package backtracker;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * This class represents the classic recursive backtracking algorithm.
  * It has a solver that can take a valid configuration and return a
@@ -12,6 +16,13 @@ public class Backtracker {
      * Should debug output be enabled?
      */
     private boolean debug;
+
+    /*
+     * Where searches are measured, or null if they are not.
+     */
+    private SearchMetrics metrics;
+    private long nodes; // Configurations expanded by the current search.
+    private int maxDepth; // Deepest level reached by the current search.
     
     /**
      * Initialize a new backtracker
@@ -25,6 +36,15 @@ public class Backtracker {
         }
     }
     
+    /**
+     * Attach metrics that every search records into, or detach them.
+     * 
+     * @param metrics The metrics to record into, or null to stop recording
+     */
+    public void setMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * A utility routine for printing out various debug messages.
      * 
@@ -45,15 +65,25 @@ public class Backtracker {
      * @return A solution config, or null if no solution
      */
     public Configuration solve(Configuration config) {
+        if (metrics == null)
+            return solve(config, 0);
+
+        long started = startSearch();
+        Configuration sol = solve(config, 0);
+        metrics.searched(System.nanoTime() - started, nodes, maxDepth, sol != null);
+        return sol;
+    }
+
+    private Configuration solve(Configuration config, int depth) {
         debugPrint("Current config", config);
         if (config.isGoal()) {
             debugPrint("\tGoal config", config);
             return config;
         } else {
-            for (Configuration child : config.getSuccessors()) {
+            for (Configuration child : successors(config, depth)) {
                 if (child.isValid()) {
                     debugPrint("\tValid successor", child);
-                    Configuration sol = solve(child);
+                    Configuration sol = solve(child, depth + 1);
                     if(sol != null) {
                         return sol;
                     }
@@ -65,4 +95,91 @@ public class Backtracker {
         } 
         return null;
     }
+
+    /**
+     * Try find a solution, if one exists, by applying and undoing moves
+     * on a single configuration instead of copying it for each successor.
+     * 
+     * @param config A valid configuration
+     * @param <M> The type of a move
+     * @return The moves that lead from config to a goal, which config is
+     *  left at, or null if no solution (config is left as it was passed in)
+     */
+    public <M> List<M> solveInPlace(UndoableConfiguration<M> config) {
+        List<M> moves = new ArrayList<>();
+        if (metrics == null)
+            return solveInPlace(config, moves) ? moves : null;
+
+        long started = startSearch();
+        boolean solved = solveInPlace(config, moves);
+        metrics.searched(System.nanoTime() - started, nodes, maxDepth, solved);
+        return solved ? moves : null;
+    }
+
+    private <M> boolean solveInPlace(UndoableConfiguration<M> config, List<M> moves) {
+        debugPrint("Current config", config);
+        if (config.isGoal()) {
+            debugPrint("\tGoal config", config);
+            return true;
+        }
+        for (M move : moves(config, moves.size())) {
+            config.apply(move);
+            moves.add(move);
+            if (config.isValid()) {
+                debugPrint("\tValid successor", config);
+                if (solveInPlace(config, moves)) {
+                    return true;
+                }
+            } else {
+                debugPrint("\tInvalid successor", config);
+            }
+            // explicit backtracking happens here
+            moves.remove(moves.size() - 1);
+            config.undo();
+        }
+        return false;
+    }
+
+    /**
+     * Reset the per-search counters.
+     * 
+     * @return The time the search started
+     */
+    private long startSearch() {
+        nodes = 0;
+        maxDepth = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Expand a configuration, measuring the expansion if metrics are attached.
+     */
+    private Collection<Configuration> successors(Configuration config, int depth) {
+        if (metrics == null)
+            return config.getSuccessors();
+
+        long before = metrics.allocatedBytes();
+        Collection<Configuration> successors = config.getSuccessors();
+        expanded(depth, successors.size(), metrics.allocatedBytes() - before);
+        return successors;
+    }
+
+    /**
+     * Get a configuration's moves, measuring them if metrics are attached.
+     */
+    private <M> Collection<M> moves(UndoableConfiguration<M> config, int depth) {
+        if (metrics == null)
+            return config.getMoves();
+
+        long before = metrics.allocatedBytes();
+        Collection<M> moves = config.getMoves();
+        expanded(depth, moves.size(), metrics.allocatedBytes() - before);
+        return moves;
+    }
+
+    private void expanded(int depth, int successors, long bytes) {
+        nodes++;
+        maxDepth = Math.max(maxDepth, depth);
+        metrics.expanded(successors, bytes);
+    }
 }
@@ -0,0 +1,126 @@
+package backtracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class is a parallel version of the recursive backtracking algorithm.
+ * Subtrees near the root are forked onto a ForkJoinPool, whose work stealing
+ * spreads them across cores, and deeper subtrees are searched sequentially.
+ * The first goal found cancels all remaining work.
+ */
+public class ParallelBacktracker {
+    /*
+     * Forking stops once this many tasks are queued beyond what idle workers can take.
+     */
+    private static final int SURPLUS_TASKS = 3;
+
+    private ForkJoinPool pool;
+    private int splitDepth;
+    private int maxDepth;
+
+    /**
+     * Initialize a new parallel backtracker on the common pool that forks
+     * the first 8 levels of the search and never gives up on depth.
+     */
+    public ParallelBacktracker() {
+        this(ForkJoinPool.commonPool(), 8, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Initialize a new parallel backtracker.
+     *
+     * @param pool The pool to search on
+     * @param splitDepth Levels below this depth are searched sequentially,
+     *  which bounds how many configurations are held at once
+     * @param maxDepth Configurations deeper than this are abandoned
+     */
+    public ParallelBacktracker(ForkJoinPool pool, int splitDepth, int maxDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Try find a solution, if one exists, for a given configuration.
+     * Configurations may be explored from several threads at once, but
+     * each one is only ever used by a single thread.
+     *
+     * @param config A valid configuration
+     * @return A solution config, or null if no solution
+     */
+    public Configuration solve(Configuration config) {
+        AtomicReference<Configuration> solution = new AtomicReference<>();
+        pool.invoke(new Search(config, 0, solution));
+        return solution.get();
+    }
+
+    /**
+     * The search of one subtree.
+     */
+    private class Search extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private Configuration config;
+        private int depth;
+        private AtomicReference<Configuration> solution;
+
+        Search(Configuration config, int depth, AtomicReference<Configuration> solution) {
+            this.config = config;
+            this.depth = depth;
+            this.solution = solution;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= splitDepth || getSurplusQueuedTaskCount() > SURPLUS_TASKS) {
+                search(config, depth);
+                return;
+            }
+
+            if (solution.get() != null)
+                return;
+
+            if (config.isGoal()) {
+                solution.compareAndSet(null, config);
+                return;
+            }
+
+            if (depth >= maxDepth)
+                return;
+
+            List<Search> children = new ArrayList<>();
+            for (Configuration child : config.getSuccessors())
+                if (child.isValid())
+                    children.add(new Search(child, depth + 1, solution));
+
+            invokeAll(children);
+        }
+
+        /**
+         * The sequential backtracker, which stops as soon as any thread finds a goal.
+         */
+        private boolean search(Configuration config, int depth) {
+            if (solution.get() != null)
+                return true;
+
+            if (config.isGoal()) {
+                solution.compareAndSet(null, config);
+                return true;
+            }
+
+            if (depth >= maxDepth)
+                return false;
+
+            for (Configuration child : config.getSuccessors())
+                if (child.isValid() && search(child, depth + 1))
+                    return true;
+
+            // implicit backtracking happens here
+            return false;
+        }
+    }
+}
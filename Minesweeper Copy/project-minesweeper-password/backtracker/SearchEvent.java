@@ -0,0 +1,29 @@
+package backtracker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed after each search while a backtracker has metrics attached.
+ */
+@Name("backtracker.Search")
+@Label("Backtracking Search")
+@Category("Minesweeper")
+@Description("A search run by the backtracker")
+class SearchEvent extends jdk.jfr.Event {
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Nodes Expanded")
+    long nodes;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Solved")
+    boolean solved;
+}
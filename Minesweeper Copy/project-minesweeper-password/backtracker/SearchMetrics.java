@@ -0,0 +1,77 @@
+package backtracker;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import metrics.Histogram;
+import metrics.Metrics;
+
+/**
+ * The metrics a Backtracker records once they are attached with setMetrics: the branching
+ * factor and bytes allocated for each expansion, and the nodes, nodes per second and maximum
+ * depth of each search. One SearchMetrics can be shared by backtrackers on any threads.
+ */
+public class SearchMetrics {
+    private Histogram branching;
+    private Histogram successorBytes;
+    private Histogram maxDepth;
+    private Histogram nodesPerSecond;
+    private LongAdder nodes;
+    private com.sun.management.ThreadMXBean threads; // Null if allocations cannot be measured.
+
+    /**
+     * @param metrics The registry the search metrics are kept in, under names starting with "search.".
+     */
+    public SearchMetrics(Metrics metrics) {
+        branching = metrics.histogram("search.branching");
+        successorBytes = metrics.histogram("search.successorBytes");
+        maxDepth = metrics.histogram("search.maxDepth");
+        nodesPerSecond = metrics.histogram("search.nodesPerSecond");
+        nodes = metrics.counter("search.nodes");
+
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+                threads = bean;
+        }
+    }
+
+    /**
+     * @return The bytes allocated so far by the current thread, or 0 if the JVM cannot tell.
+     */
+    long allocatedBytes() {
+        return (threads != null) ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Records one expanded configuration.
+     * @param successors The number of successors (or moves) it had.
+     * @param bytes The bytes allocated while generating them.
+     */
+    void expanded(int successors, long bytes) {
+        branching.record(successors);
+        successorBytes.record(bytes);
+        nodes.increment();
+    }
+
+    /**
+     * Records one whole search.
+     * @param nanos How long the search took.
+     * @param expanded The number of configurations expanded.
+     * @param depth The deepest level the search reached.
+     * @param solved Whether a goal was found.
+     */
+    void searched(long nanos, long expanded, int depth, boolean solved) {
+        maxDepth.record(depth);
+        nodesPerSecond.record(nanos > 0 ? expanded * 1_000_000_000L / nanos : 0);
+
+        SearchEvent event = new SearchEvent();
+        if (event.shouldCommit()) {
+            event.elapsed = nanos;
+            event.nodes = expanded;
+            event.maxDepth = depth;
+            event.solved = solved;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package backtracker;
+
+import java.util.Collection;
+
+/**
+ * A configuration that applies and reverts moves on itself instead of
+ * creating a new configuration for every successor. The
+ * backtracker.Backtracker can search these without allocating copies.
+ *
+ * @param <M> The type of a move
+ */
+public interface UndoableConfiguration<M> extends Configuration {
+    /**
+     * Get the moves that can be applied to the current configuration.
+     * 
+     * @return All moves, whether they lead to valid configurations or not
+     */
+    public Collection<M> getMoves();
+
+    /**
+     * Apply a move to this configuration.
+     * 
+     * @param move One of the moves from getMoves()
+     */
+    public void apply(M move);
+
+    /**
+     * Revert the last move applied.
+     */
+    public void undo();
+}
@@ -0,0 +1,100 @@
+package bench;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MoveResult;
+
+/**
+ * Building, copying and querying boards across sizes and mine densities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private static final Location OFF_BOARD = new Location(-1, -1);
+
+    @Param({"16", "100", "1000"})
+    public int size;
+
+    @Param({"0.05", "0.15", "0.5"})
+    public double density;
+
+    private Minesweeper game;
+    private long seed;
+
+    /**
+     * The queried game has had its first selection, in the middle, so its mines are placed.
+     */
+    @Setup
+    public void setUp() throws MinesweeperException {
+        game = new Minesweeper(size, size, mines(), 42L);
+        game.tryMakeSelection(new Location(size / 2, size / 2));
+    }
+
+    private int mines() { return (int)(size * size * density); }
+
+    /**
+     * Construction, which only lays out a covered board; the mines wait for the first selection.
+     */
+    @Benchmark
+    public Minesweeper construct() throws MinesweeperException {
+        return new Minesweeper(size, size, mines(), seed++);
+    }
+
+    /**
+     * Construction and the first selection, in the middle, which places the mines and counts their neighbours.
+     */
+    @Benchmark
+    public Minesweeper firstSelection() throws MinesweeperException {
+        Minesweeper first = new Minesweeper(size, size, mines(), seed++);
+        first.tryMakeSelection(new Location(size / 2, size / 2));
+        return first;
+    }
+
+    @Benchmark
+    public Minesweeper copy() {
+        return new Minesweeper(game);
+    }
+
+    @Benchmark
+    public Collection<Location> possibleSelections() {
+        return game.getPossibleSelections();
+    }
+
+    /**
+     * A hint followed by its undo, which leaves the board as it was for the next call.
+     */
+    @Benchmark
+    public Location giveHint() {
+        Location hint = game.giveHint();
+        game.undo();
+        return hint;
+    }
+
+    /**
+     * Probing a tile the game rejects, which should cost next to nothing.
+     */
+    @Benchmark
+    public MoveResult rejectedSelection() {
+        return game.tryMakeSelection(OFF_BOARD);
+    }
+}
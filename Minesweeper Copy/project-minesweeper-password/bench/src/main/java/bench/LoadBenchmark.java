@@ -0,0 +1,63 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.GameFile;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+/**
+ * Loading a saved game, which rebuilds every adjacent mine count from the mines. The same load
+ * runs in a fork without the Vector API and in one with it, so the two scores compare the
+ * scalar and vector recounts on whatever CPU runs them (AVX2 or AVX-512 on x86).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoadBenchmark {
+    @Param({"1000", "4000"})
+    public int size;
+
+    private Path path;
+
+    @Setup
+    public void setUp() throws MinesweeperException, IOException {
+        path = Files.createTempFile("bench", ".msw");
+        GameFile.save(new Minesweeper(size, size, size * size / 5, 42L), path, false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(path);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Minesweeper loadScalar() throws IOException {
+        return GameFile.load(path);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    public Minesweeper loadVector() throws IOException {
+        return GameFile.load(path);
+    }
+}
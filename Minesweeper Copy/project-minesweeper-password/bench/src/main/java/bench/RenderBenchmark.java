@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Minesweeper;
+import model.MinesweeperException;
+
+/**
+ * Reading symbols from a board that is partly played.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    @Param({"16", "100", "1000"})
+    public int size;
+
+    private Minesweeper game;
+
+    @Setup
+    public void setUp() throws MinesweeperException {
+        game = new Minesweeper(size, size, size * size / 6, 42L);
+        game.makeSelection(game.giveHint());
+    }
+
+    @Benchmark
+    public int getSymbol() throws MinesweeperException {
+        int sum = 0;
+        for (int row = 0 ; row < size ; row++)
+            for (int col = 0 ; col < size ; col++)
+                sum += game.getSymbol(row, col);
+        return sum;
+    }
+
+    @Benchmark
+    public String render() {
+        return game.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MoveResult;
+
+/**
+ * A first selection on a sparse board, which cascades across most of it.
+ * Each call selects on a fresh copy of the same board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+    @Param({"100", "1000", "2000"})
+    public int size;
+
+    @Param({"0", "0.01", "0.05"})
+    public double density;
+
+    private Minesweeper template;
+    private Minesweeper game;
+    private Location start;
+
+    @Setup
+    public void setUp() throws MinesweeperException {
+        template = new Minesweeper(size, size, (int)(size * size * density), 42L);
+        start = template.giveHint();
+        template.undo();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        game = new Minesweeper(template);
+    }
+
+    @Benchmark
+    public MoveResult makeSelection() {
+        return game.tryMakeSelection(start);
+    }
+}
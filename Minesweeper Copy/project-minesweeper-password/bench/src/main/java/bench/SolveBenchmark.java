@@ -0,0 +1,50 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+/**
+ * Solving a fresh board from its first hint. solve() plays a copy, so the board is reused.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"16", "100", "300"})
+    public int size;
+
+    @Param({"0.12", "0.2"})
+    public double density;
+
+    private Minesweeper game;
+
+    @Setup
+    public void setUp() throws MinesweeperException {
+        game = new Minesweeper(size, size, (int)(size * size * density), 42L);
+        game.makeSelection(game.giveHint());
+    }
+
+    @Benchmark
+    public List<Location> solve() {
+        return game.solve();
+    }
+}
@@ -0,0 +1,103 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative longs. Values are counted in log-linear buckets:
+ * each power of two is split into 8 buckets, so percentiles are accurate to within 12.5%
+ * and recording a value never allocates.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) << SUB_BITS;
+
+    private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private LongAdder count = new LongAdder();
+    private LongAdder sum = new LongAdder();
+    private AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value The value to count. Negative values are counted as 0.
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get())
+            max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount() { return count.sum(); }
+
+    /**
+     * @return The sum of the values recorded.
+     */
+    public long getSum() { return sum.sum(); }
+
+    /**
+     * @return The largest value recorded, or 0 if none were.
+     */
+    public long getMax() { return max.get(); }
+
+    /**
+     * @return The mean of the values recorded, or 0 if none were.
+     */
+    public double getMean() {
+        long n = getCount();
+        return (n == 0) ? 0 : (double)getSum() / n;
+    }
+
+    /**
+     * @param percentile The percentile wanted, from 0 to 100.
+     * @return The upper bound of the bucket holding that percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long n = getCount();
+        if (n == 0)
+            return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int bucket = 0 ; bucket < BUCKETS ; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank)
+                return Math.min(lowestOf(bucket + 1) - 1, getMax());
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Values below 8 get a bucket each; above that, the top 3 bits after the leading one pick one
+     * of 8 buckets for the value's power of two.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int)value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int)(value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    /**
+     * @return The smallest value counted in a bucket.
+     */
+    static long lowestOf(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        if (bucket >= BUCKETS)
+            return Long.MAX_VALUE;
+
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        return (long)(SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << (exponent - SUB_BITS);
+    }
+}
@@ -0,0 +1,56 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A registry of named histograms and counters. Instrumented classes look their metrics up once,
+ * when metrics are attached, and record into them directly; nothing is recorded unless a
+ * registry is attached, so code without metrics pays a single null check per event.
+ */
+public class Metrics {
+    private Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+    private Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param name The name of the histogram.
+     * @return The histogram with that name, created if it does not exist yet.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * @param name The name of the counter.
+     * @return The counter with that name, created if it does not exist yet.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Sends every metric to the exporter, histograms first, each in order of name.
+     * @param exporter The exporter to send the metrics to.
+     */
+    public void export(MetricsExporter exporter) {
+        histograms.forEach(exporter::histogram);
+        counters.forEach((name, counter) -> exporter.counter(name, counter.sum()));
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server, e.g. for JConsole.
+     * @param type The type key of the MBean's name, which is minesweeper:type=&lt;type&gt;.
+     * @return The name the MBean was registered under.
+     * @throws JMException If the name is invalid or already registered.
+     */
+    public ObjectName registerMBean(String type) throws JMException {
+        ObjectName name = new ObjectName("minesweeper", "type", type);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(this), name);
+        return name;
+    }
+}
@@ -0,0 +1,19 @@
+package metrics;
+
+/**
+ * Receives a snapshot of every metric in a Metrics registry, one call per metric,
+ * in order of name. Implementations push the values to wherever they are reported.
+ */
+public interface MetricsExporter {
+    /**
+     * @param name The name of the histogram.
+     * @param histogram The histogram, which may still be recorded into while it is read.
+     */
+    void histogram(String name, Histogram histogram);
+
+    /**
+     * @param name The name of the counter.
+     * @param value The current value of the counter.
+     */
+    void counter(String name, long value);
+}
@@ -0,0 +1,93 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanException;
+import javax.management.ReflectionException;
+
+/**
+ * Read-only JMX view of a Metrics registry. Each counter is an attribute, and each histogram
+ * is a set of attributes (&lt;name&gt;.count, .mean, .p50, .p99 and .max). Values are read
+ * through an export, so metrics added after registration show up too.
+ */
+class MetricsMBean implements DynamicMBean, MetricsExporter {
+    private Metrics metrics;
+    private Map<String, Object> values; // Filled by the export running in read().
+
+    MetricsMBean(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private synchronized Map<String, Object> read() {
+        values = new LinkedHashMap<>();
+        metrics.export(this);
+        return values;
+    }
+
+    @Override
+    public void histogram(String name, Histogram histogram) {
+        values.put(name + ".count", histogram.getCount());
+        values.put(name + ".mean", histogram.getMean());
+        values.put(name + ".p50", histogram.getPercentile(50));
+        values.put(name + ".p99", histogram.getPercentile(99));
+        values.put(name + ".max", histogram.getMax());
+    }
+
+    @Override
+    public void counter(String name, long value) {
+        values.put(name, value);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = read().get(attribute);
+        if (value == null)
+            throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> current = read();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes)
+            if (current.containsKey(attribute))
+                list.add(new Attribute(attribute, current.get(attribute)));
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String action, Object[] params, String[] signature) throws MBeanException, ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(action));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        read().forEach((name, value) -> attributes.add(
+            new MBeanAttributeInfo(name, value.getClass().getName(), name, true, false, false)));
+
+        return new MBeanInfo(Metrics.class.getName(), "Minesweeper metrics",
+            attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Delivers a game's notifications to another observer asynchronously, so a slow observer
+ * never holds up the thread making moves. Changed tiles wait in a bounded queue that holds
+ * each tile at most once. If the observer falls more than a queue's worth of tiles behind,
+ * the queue collapses into a single whole-board change. Deliveries run one at a time on the
+ * executor, and the game is never blocked.
+ *
+ * The observer reads the game when it is called, so it always sees the latest state of a tile.
+ * An exception thrown by the observer goes to the delivering thread's uncaught exception handler,
+ * and delivery carries on. Close an AsyncObserver once it is no longer needed, which also stops
+ * the thread of one made without an executor.
+ */
+public class AsyncObserver implements MinesweeperObserver, AutoCloseable {
+    private static final int CAPACITY = 4096;
+
+    private MinesweeperObserver observer;
+    private Executor executor;
+    private ExecutorService owned; // The executor made for this observer, shut down on close.
+    private Minesweeper game;
+    private int cols;
+    private int capacity;
+
+    private Object lock = new Object();
+    private BitSet queued; // Tiles waiting in pending.
+    private int[] pending;
+    private int size;
+    private boolean wholeBoard;
+    private boolean gameChanged;
+    private boolean scheduled;
+    private boolean closed;
+    private BoardChange delivery; // Only touched by the delivering thread.
+
+    /**
+     * Delivers notifications on a dedicated daemon thread.
+     * @param game The observed game.
+     * @param observer The observer to deliver to.
+     */
+    public AsyncObserver(Minesweeper game, MinesweeperObserver observer) {
+        this(game, observer, newDaemonThread(), CAPACITY);
+        owned = (ExecutorService)executor; // Made just above, so nobody else can shut it down.
+    }
+
+    /**
+     * @param game The observed game.
+     * @param observer The observer to deliver to.
+     * @param executor Runs deliveries, e.g. Platform::runLater for a JavaFX observer.
+     */
+    public AsyncObserver(Minesweeper game, MinesweeperObserver observer, Executor executor) {
+        this(game, observer, executor, CAPACITY);
+    }
+
+    /**
+     * @param game The observed game.
+     * @param observer The observer to deliver to.
+     * @param executor Runs deliveries.
+     * @param capacity The most tiles queued before they collapse into a whole-board change.
+     */
+    public AsyncObserver(Minesweeper game, MinesweeperObserver observer, Executor executor, int capacity) {
+        this.game = game;
+        this.observer = observer;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.cols = game.getCols();
+
+        queued = new BitSet();
+        pending = new int[Math.min(capacity, 64)];
+        delivery = new BoardChange(game.getRows(), cols);
+    }
+
+    @Override
+    public void tileUpdated(Location loc) {
+        synchronized (lock) {
+            queue(loc.getRow() * cols + loc.getCol());
+        }
+        schedule();
+    }
+
+    @Override
+    public void tilesUpdated(BoardChange changes) {
+        synchronized (lock) {
+            if (changes.isWholeBoard() || size + changes.size() > capacity)
+                collapse();
+            else
+                for (int i = 0 ; i < changes.size() && !wholeBoard ; i++)
+                    queue(changes.getRow(i) * cols + changes.getCol(i));
+        }
+        schedule();
+    }
+
+    @Override
+    public void gameUpdated(Minesweeper game) {
+        synchronized (lock) {
+            gameChanged = true;
+        }
+        schedule();
+    }
+
+    private void queue(int index) {
+        if (wholeBoard || queued.get(index))
+            return;
+
+        if (size == capacity) {
+            collapse();
+            return;
+        }
+
+        if (size == pending.length)
+            pending = Arrays.copyOf(pending, Math.min(size * 2, capacity));
+        pending[size++] = index;
+        queued.set(index);
+    }
+
+    /**
+     * Replaces the queued tiles with a single whole-board change.
+     */
+    private void collapse() {
+        wholeBoard = true;
+        queued.clear();
+        size = 0;
+    }
+
+    private void schedule() {
+        synchronized (lock) {
+            if (scheduled || closed)
+                return;
+            scheduled = true;
+        }
+
+        try {
+            executor.execute(this::deliver);
+        } catch (RejectedExecutionException e) {
+            synchronized (lock) { // The changes stay queued for the next notification to schedule.
+                scheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Delivers everything queued, repeating until the queue stays empty.
+     */
+    private void deliver() {
+        while (true) {
+            boolean notifyGame;
+
+            synchronized (lock) {
+                if (closed || (size == 0 && !wholeBoard && !gameChanged)) {
+                    scheduled = false;
+                    return;
+                }
+
+                delivery.clear();
+                if (wholeBoard)
+                    delivery.addAll();
+                for (int i = 0 ; i < size ; i++) {
+                    delivery.add(pending[i]);
+                    queued.clear(pending[i]);
+                }
+
+                size = 0;
+                wholeBoard = false;
+                notifyGame = gameChanged;
+                gameChanged = false;
+            }
+
+            try {
+                if (!delivery.isEmpty())
+                    observer.tilesUpdated(delivery);
+                if (notifyGame)
+                    observer.gameUpdated(game);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * Stops delivering to the observer and unregisters from the game. Changes still queued are
+     * dropped, and the thread made for an observer without an executor of its own is shut down.
+     */
+    @Override
+    public void close() {
+        game.unregister(this);
+        synchronized (lock) {
+            closed = true;
+            queued.clear();
+            size = 0;
+            wholeBoard = false;
+            gameChanged = false;
+        }
+        if (owned != null)
+            owned.shutdown();
+    }
+
+    private static ExecutorService newDaemonThread() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "minesweeper-observer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One bit per tile, packed 64 tiles to a long so board-wide queries can skip or count a whole
+ * word at a time. Words are split into pages the same size as Board's, and copies share pages
+ * until one of them writes to it, so a move copies the same pages in both. Ownership of a page
+ * is stamped with a shared epoch, as PagedBoard's is, so copying never writes to the template.
+ */
+class Bitplane {
+    private static final int PAGE_SHIFT = 4; // 16 words, the 1024 tiles of a Board page.
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+    private static final AtomicLong EPOCH = new AtomicLong(1); // Bumped by every copy.
+
+    private long[][] pages;
+    private long[] stamps; // The epoch each page was copied in by this plane, 0 if it never was.
+    private int length;
+
+    /**
+     * Creates a plane with every bit clear.
+     * @param length The number of tiles.
+     */
+    Bitplane(int length) {
+        this.length = length;
+
+        pages = new long[(words(length) + PAGE_MASK) >>> PAGE_SHIFT][];
+        Arrays.fill(pages, new long[PAGE_SIZE]);
+        stamps = new long[pages.length];
+    }
+
+    /**
+     * Copy constructor. Shares every page with the template, and starts a new epoch so that
+     * neither plane writes through to the other.
+     * @param template The Bitplane to copy.
+     */
+    Bitplane(Bitplane template) {
+        EPOCH.incrementAndGet(); // Before the pages are shared, so the template sees it first.
+        length = template.length;
+        pages = template.pages.clone();
+        stamps = new long[pages.length];
+    }
+
+    /**
+     * @return The number of words needed for length tiles.
+     */
+    static int words(int length) { return (length + WORD_MASK) >>> WORD_SHIFT; }
+
+    /**
+     * @return The number of words in the plane.
+     */
+    int words() { return words(length); }
+
+    /**
+     * @return The bits of tiles word * 64 to word * 64 + 63, lowest tile in the lowest bit.
+     */
+    long word(int word) { return pages[word >>> PAGE_SHIFT][word & PAGE_MASK]; }
+
+    /**
+     * @return The bits of a word that are on the board; only the last word has any that are not.
+     */
+    long valid(int word) {
+        int tail = length - (word << WORD_SHIFT);
+        return (tail >= Long.SIZE) ? -1L : (1L << tail) - 1;
+    }
+
+    /**
+     * @return True if the bit of the tile at index is set, False otherwise.
+     */
+    boolean get(int index) { return (word(index >>> WORD_SHIFT) & (1L << index)) != 0; }
+
+    /**
+     * Sets or clears the bit of the tile at index. A page is only copied if the bit changes.
+     */
+    void set(int index, boolean bit) {
+        if (get(index) == bit)
+            return;
+
+        int word = index >>> WORD_SHIFT;
+        int page = word >>> PAGE_SHIFT;
+        long epoch = EPOCH.get();
+
+        if (stamps[page] != epoch) { // Copied by another plane, or shared since this one copied it.
+            pages[page] = pages[page].clone();
+            stamps[page] = epoch;
+        }
+
+        pages[page][word & PAGE_MASK] ^= 1L << index;
+    }
+
+    /**
+     * @return The index of the n-th tile (counting from 0) whose bit is set in bits,
+     *         which must have more than n bits set.
+     */
+    static int select(long bits, int n) {
+        for ( ; n > 0 ; n--)
+            bits &= bits - 1;
+        return Long.numberOfTrailingZeros(bits);
+    }
+}
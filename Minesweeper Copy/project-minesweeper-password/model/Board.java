@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * Packed tile storage for Minesweeper, one byte per tile indexed by row * cols + col.
+ * PagedBoard keeps the tiles on the heap and shares them between copies; OffHeapBoard
+ * keeps them in direct or file-mapped memory from a BoardArena.
+ */
+abstract class Board {
+    /**
+     * @return A board holding the same tiles that neither board's writes show through to.
+     */
+    abstract Board copy();
+
+    /**
+     * @param value The value of every tile.
+     * @return A board of the same length and kind with every tile set to value.
+     *         This board must not be used afterwards, as it may have been reused.
+     */
+    abstract Board blank(byte value);
+
+    /**
+     * @return The number of tiles.
+     */
+    abstract int length();
+
+    /**
+     * @return The packed value of the tile at index.
+     */
+    abstract byte get(int index);
+
+    /**
+     * Sets the packed value of the tile at index.
+     */
+    abstract void set(int index, byte value);
+
+    /**
+     * Copies a run of tiles out of the board.
+     * @param from The board index of the first tile.
+     * @param dst The array to copy into, starting at index 0.
+     * @param length The number of tiles.
+     */
+    abstract void read(int from, byte[] dst, int length);
+
+    /**
+     * Copies a run of tiles into the board.
+     * @param from The board index of the first tile.
+     * @param src The array to copy from, starting at index 0.
+     * @param length The number of tiles.
+     */
+    abstract void write(int from, byte[] src, int length);
+}
@@ -0,0 +1,134 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memory for boards kept off the Java heap, so the tiles of the largest boards cost the garbage
+ * collector nothing to trace or copy. Boards come either from direct memory (limited by
+ * -XX:MaxDirectMemorySize) or from one sparse temporary file mapped into memory, which the OS pages
+ * in and out as it is touched. Only the tiles live here: the bitplanes of a game, three bits a
+ * tile, stay on the heap.
+ *
+ * Every board of a game and of its copies is allocated from the arena the game was created with.
+ * Boards are carved out of slabs of memory, so a mapped arena holds one file open however many
+ * boards it has. Once the garbage collector finds a board unreachable its memory goes back to the
+ * arena for the next board of the same size, which suits solvers copying the same game over and
+ * over. Closing the arena deletes its file, and every board from it fails from then on; the memory
+ * itself is returned to the OS once the garbage collector finds its slabs unreachable, as Java
+ * gives no safe way to free a buffer sooner. Allocation is thread-safe, so solver workers may copy
+ * games of one arena at the same time.
+ */
+public class BoardArena implements AutoCloseable {
+    private static final int MIN_SLAB = 1 << 20;
+    private static final int MAX_SLAB = 1 << 26; // Larger boards get memory of their own.
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Path directory; // Where the board file is kept, null for direct memory.
+    private FileChannel channel; // Opened by the first mapped allocation.
+    private long fileSize;
+    private ByteBuffer slab; // New boards are carved from its position onwards.
+    private final Map<Integer, ArrayDeque<ByteBuffer>> free = new HashMap<>(); // Memory of unreachable boards, by length.
+    private volatile boolean closed;
+
+    private BoardArena(Path directory) { this.directory = directory; }
+
+    /**
+     * @return An arena that allocates boards in direct memory.
+     */
+    public static BoardArena ofDirect() { return new BoardArena(null); }
+
+    /**
+     * @param directory The directory to keep the board file in.
+     * @return An arena that allocates boards in a memory-mapped temporary file.
+     */
+    public static BoardArena ofMapped(Path directory) { return new BoardArena(directory); }
+
+    /**
+     * @return True once the arena has been closed.
+     */
+    public boolean isClosed() { return closed; }
+
+    /**
+     * @param owner The board the memory is for. The memory is reused once it is unreachable.
+     * @param length The number of bytes.
+     * @return Memory of the given length, with whatever the last board using it left there.
+     * @throws IllegalStateException If the arena has been closed.
+     * @throws UncheckedIOException If the board file cannot be created or grown.
+     */
+    synchronized ByteBuffer allocate(Object owner, int length) {
+        if (closed)
+            throw new IllegalStateException("The board arena is closed.");
+
+        ArrayDeque<ByteBuffer> reusable = free.get(length);
+        ByteBuffer memory = (reusable == null || reusable.isEmpty()) ? carve(length) : reusable.pop();
+        CLEANER.register(owner, () -> release(memory));
+        return memory;
+    }
+
+    /**
+     * Cuts new memory off the current slab, reserving a slab twice the size of the last when it is used up.
+     */
+    private ByteBuffer carve(int length) {
+        if (length > MAX_SLAB)
+            return reserve(length);
+
+        if (slab == null || slab.remaining() < length)
+            slab = reserve((slab == null) ? Math.max(MIN_SLAB, length) : Math.min(MAX_SLAB, Math.max(slab.capacity() * 2, length)));
+
+        ByteBuffer memory = slab.slice(slab.position(), length);
+        slab.position(slab.position() + length);
+        return memory;
+    }
+
+    private ByteBuffer reserve(int length) {
+        if (directory == null)
+            return ByteBuffer.allocateDirect(length);
+
+        try {
+            if (channel == null)
+                channel = FileChannel.open(Files.createTempFile(directory, "boards", ".tiles"),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+
+            ByteBuffer memory = channel.map(FileChannel.MapMode.READ_WRITE, fileSize, length); // Grows the file sparsely.
+            fileSize += length;
+            return memory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Takes back the memory of a board the garbage collector found unreachable.
+     */
+    private synchronized void release(ByteBuffer memory) {
+        if (!closed)
+            free.computeIfAbsent(memory.capacity(), length -> new ArrayDeque<>()).push(memory);
+    }
+
+    /**
+     * Stops the arena allocating, fails every board from it and deletes its board file.
+     * Closing twice does nothing.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        free.clear();
+        slab = null;
+
+        if (channel != null) {
+            try { channel.close();
+            } catch (IOException e) { /* the file goes when the process does */ }
+            channel = null;
+        }
+    }
+}
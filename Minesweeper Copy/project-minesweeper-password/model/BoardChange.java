@@ -0,0 +1,146 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The tiles changed by one move, delivered to a MinesweeperObserver as a single batch.
+ * A change either lists the tiles that changed or covers the whole board (a new board
+ * or the reveal at the end of a game), and always knows its bounding box.
+ * The game reuses its change between moves, so observers that keep one must copy it.
+ */
+public class BoardChange {
+    private int rows;
+    private int cols;
+    private int[] indices;
+    private int size;
+    private boolean wholeBoard;
+    private int minRow;
+    private int maxRow;
+    private int minCol;
+    private int maxCol;
+
+    /**
+     * Creates an empty change.
+     * @param rows The number of rows on the board.
+     * @param cols The number of columns on the board.
+     */
+    BoardChange(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        indices = new int[16];
+        clear();
+    }
+
+    /**
+     * Copy constructor.
+     * @param template The BoardChange to copy.
+     */
+    public BoardChange(BoardChange template) {
+        rows = template.rows;
+        cols = template.cols;
+        indices = Arrays.copyOf(template.indices, Math.max(template.size, 1));
+        size = template.size;
+        wholeBoard = template.wholeBoard;
+        minRow = template.minRow;
+        maxRow = template.maxRow;
+        minCol = template.minCol;
+        maxCol = template.maxCol;
+    }
+
+    /**
+     * Adds a tile to the change.
+     * @param index The board index of the tile.
+     */
+    void add(int index) {
+        if (wholeBoard)
+            return;
+
+        if (size == indices.length)
+            indices = Arrays.copyOf(indices, size * 2);
+        indices[size++] = index;
+
+        int row = index / cols;
+        int col = index % cols;
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+    }
+
+    /**
+     * Marks every tile on the board as changed.
+     */
+    void addAll() {
+        wholeBoard = true;
+        size = 0;
+        minRow = 0;
+        maxRow = rows - 1;
+        minCol = 0;
+        maxCol = cols - 1;
+    }
+
+    /**
+     * Empties the change.
+     */
+    void clear() {
+        wholeBoard = false;
+        size = 0;
+        minRow = Integer.MAX_VALUE;
+        maxRow = -1;
+        minCol = Integer.MAX_VALUE;
+        maxCol = -1;
+    }
+
+    /**
+     * @return True if every tile on the board changed, False otherwise.
+     */
+    public boolean isWholeBoard() { return wholeBoard; }
+
+    /**
+     * @return True if no tile changed, False otherwise.
+     */
+    public boolean isEmpty() { return size() == 0; }
+
+    /**
+     * @return The number of changed tiles. A tile may be listed more than once.
+     */
+    public int size() { return wholeBoard ? rows * cols : size; }
+
+    /**
+     * @param i The position of a changed tile, from 0 to size() - 1.
+     * @return The row of the changed tile.
+     */
+    public int getRow(int i) { return (wholeBoard ? i : indices[i]) / cols; }
+
+    /**
+     * @param i The position of a changed tile, from 0 to size() - 1.
+     * @return The column of the changed tile.
+     */
+    public int getCol(int i) { return (wholeBoard ? i : indices[i]) % cols; }
+
+    /**
+     * @param i The position of a changed tile, from 0 to size() - 1.
+     * @return The Location of the changed tile.
+     */
+    public Location getLocation(int i) { return new Location(getRow(i), getCol(i)); }
+
+    /**
+     * @return The first row of the bounding box, or Integer.MAX_VALUE if nothing changed.
+     */
+    public int getMinRow() { return minRow; }
+
+    /**
+     * @return The last row of the bounding box, or -1 if nothing changed.
+     */
+    public int getMaxRow() { return maxRow; }
+
+    /**
+     * @return The first column of the bounding box, or Integer.MAX_VALUE if nothing changed.
+     */
+    public int getMinCol() { return minCol; }
+
+    /**
+     * @return The last column of the bounding box, or -1 if nothing changed.
+     */
+    public int getMaxCol() { return maxCol; }
+}
@@ -0,0 +1,74 @@
+package model;
+
+/**
+ * Row-at-a-time scans over packed tile bytes, laid out as in Minesweeper:
+ * the mine bit on top and the adjacent-mine count in the low nibble.
+ *
+ * This class is the scalar version. When the JVM is started with
+ * --add-modules jdk.incubator.vector, KERNEL is a VectorBoardKernel instead,
+ * which runs the same scans a vector of tiles at a time.
+ */
+class BoardKernel {
+    static final BoardKernel KERNEL = load();
+
+    private static final int COUNT_MASK = 0x0F;
+
+    /**
+     * @return The vector kernel if the incubator module is loaded and it links, this one otherwise.
+     */
+    private static BoardKernel load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try { return (BoardKernel)Class.forName("model.VectorBoardKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) { /* fall back to scalar */ }
+        }
+        return new BoardKernel();
+    }
+
+    /**
+     * @return True if this kernel runs on the Vector API, False if it is scalar.
+     */
+    boolean isVectorized() { return false; }
+
+    /**
+     * Unpacks the mine bits of a row of tiles as 0 or 1, one per byte. The mines are written from
+     * index 1 so the row has a blank tile on either side; mines[0] and mines[cols + 1] are left alone.
+     * @param tiles The packed tiles of the row.
+     * @param mines Where to write the mines, at least cols + 2 long.
+     * @param cols The number of tiles in the row.
+     */
+    void mines(byte[] tiles, byte[] mines, int cols) { mines(tiles, mines, 0, cols); }
+
+    /**
+     * Sets the adjacent-mine count of every tile in a row from the unpacked mines
+     * of the rows above, below and the row itself, keeping the top nibble of each tile.
+     * @param above The mines of the row above, all 0 on the first row.
+     * @param row The mines of the row.
+     * @param below The mines of the row below, all 0 on the last row.
+     * @param tiles The packed tiles of the row, updated in place.
+     * @param cols The number of tiles in the row.
+     */
+    void counts(byte[] above, byte[] row, byte[] below, byte[] tiles, int cols) {
+        counts(above, row, below, tiles, 0, cols);
+    }
+
+    /**
+     * Scalar mines over the tiles from column from up to column to, which also finishes vector rows.
+     */
+    void mines(byte[] tiles, byte[] mines, int from, int to) {
+        for (int col = from ; col < to ; col++)
+            mines[col + 1] = (byte)((tiles[col] >>> 7) & 1);
+    }
+
+    /**
+     * Scalar counts over the tiles from column from up to column to, which also finishes vector rows.
+     */
+    void counts(byte[] above, byte[] row, byte[] below, byte[] tiles, int from, int to) {
+        for (int col = from ; col < to ; col++) {
+            int count = above[col] + above[col + 1] + above[col + 2]
+                      + row[col] + row[col + 2]
+                      + below[col] + below[col + 1] + below[col + 2];
+
+            tiles[col] = (byte)((tiles[col] & ~COUNT_MASK) | count);
+        }
+    }
+}
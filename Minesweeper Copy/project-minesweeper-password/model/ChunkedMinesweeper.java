@@ -0,0 +1,541 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A Minesweeper board too big to build up front, up to Integer.MAX_VALUE tiles a side, for
+ * endless-mode games. The board is split into 64x64 chunks whose mines are generated from the
+ * seed and the chunk's coordinates the first time they are needed, so any chunk can be thrown
+ * away and generated again exactly as it was.
+ *
+ * Only chunks a move has changed are kept for good. Chunks read for their mines, or read after
+ * the game ends, sit in small direct-mapped caches and are regenerated when evicted, so memory
+ * grows with the explored area rather than the board. Cascades follow tile coordinates across
+ * chunk borders and only touch the chunks they open. Chunks are keyed by their packed coordinates
+ * as a primitive long, and the last chunk looked up is remembered, since a cascade or a row of
+ * mine checks stays in one chunk for most of its tiles.
+ *
+ * Each chunk gets its share of the mines, the density times its number of tiles rounded, so the
+ * total mine count is fixed by the size and density alone. There are no hints, no undo and no observers.
+ */
+public class ChunkedMinesweeper {
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK = 1 << CHUNK_SHIFT; // One long of mines per chunk row.
+    private static final int CHUNK_MASK = CHUNK - 1;
+    private static final int CACHED_CHUNKS = 256; // Slots for untouched chunks, a power of two.
+    private static final long NO_CHUNK = -1; // Never a key, since chunk coordinates are never negative.
+    private static final byte COVERED = (byte)(TileState.COVERED.ordinal() << Minesweeper.STATE_SHIFT);
+    private static final TileState[] STATES = TileState.values();
+
+    private final ChunkMap<byte[]> touched = new ChunkMap<>(); // Packed tiles of chunks moves have changed.
+    private final ChunkCache<byte[]> clean = new ChunkCache<>(); // Packed tiles of untouched chunks, for reading only.
+    private final ChunkCache<long[]> layouts = new ChunkCache<>(); // Mines of a chunk, one long per row.
+    private long lastTouchedKey = NO_CHUNK;
+    private byte[] lastTouched;
+    private long lastLayoutKey = NO_CHUNK;
+    private long[] lastLayout;
+    private long[] cascade; // Reusable ring buffer of row << 32 | col for flood fill reveals.
+    private final long seed;
+    private final double density;
+    private final long mineCount;
+    private final int rows;
+    private final int cols;
+    private GameState state;
+    private boolean revealed; // The game is over and every tile reads as uncovered.
+    private long coveredSafe;
+    private long revealedCount;
+    private int flagCount;
+    private int moveCount;
+
+    /**
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param density The fraction of each chunk's tiles that are mines, from 0 to 1.
+     * @param seed The seed every chunk's mines are generated from.
+     * @throws MinesweeperException If the size or density is invalid.
+     */
+    public ChunkedMinesweeper(int rows, int cols, double density, long seed) throws MinesweeperException {
+        if (rows <= 0 || cols <= 0)
+            throw new MinesweeperException("Invalid number of rows or columns.");
+
+        if (!(density >= 0 && density <= 1))
+            throw new MinesweeperException("Invalid mine density.");
+
+        this.rows = rows;
+        this.cols = cols;
+        this.density = density;
+        this.seed = seed;
+        state = GameState.IN_PROGRESS;
+
+        // Chunks are full except along the last chunk row and column:
+        long fullRows = rows >>> CHUNK_SHIFT;
+        long fullCols = cols >>> CHUNK_SHIFT;
+        int lastRows = rows & CHUNK_MASK;
+        int lastCols = cols & CHUNK_MASK;
+        mineCount = fullRows * fullCols * minesIn(CHUNK * CHUNK) + fullRows * minesIn(CHUNK * lastCols)
+                  + fullCols * minesIn(lastRows * CHUNK) + minesIn(lastRows * lastCols);
+        coveredSafe = (long)rows * cols - mineCount;
+    }
+
+    /**
+     * Open-addressing map from chunk keys to chunks, probed linearly and never shrunk.
+     */
+    private static class ChunkMap<V> {
+        private long[] keys = emptyKeys(16);
+        private Object[] values = new Object[16];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            for (int slot = slotOf(key, keys.length) ; keys[slot] != NO_CHUNK ; slot = (slot + 1) & (keys.length - 1))
+                if (keys[slot] == key)
+                    return (V)values[slot];
+            return null;
+        }
+
+        /**
+         * Adds a chunk whose key is not in the map yet.
+         */
+        void put(long key, V value) {
+            if (2 * (size + 1) > keys.length) { // Keep at least half the slots free.
+                long[] oldKeys = keys;
+                Object[] oldValues = values;
+                keys = emptyKeys(oldKeys.length * 2);
+                values = new Object[oldKeys.length * 2];
+                for (int slot = 0 ; slot < oldKeys.length ; slot++)
+                    if (oldKeys[slot] != NO_CHUNK)
+                        insert(oldKeys[slot], oldValues[slot]);
+            }
+            insert(key, value);
+            size++;
+        }
+
+        private void insert(long key, Object value) {
+            int slot = slotOf(key, keys.length);
+            while (keys[slot] != NO_CHUNK)
+                slot = (slot + 1) & (keys.length - 1);
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        int size() { return size; }
+    }
+
+    /**
+     * Fixed-size cache of chunks that can be regenerated, one slot per key hash, where a chunk
+     * put into a slot evicts whichever chunk was there.
+     */
+    private static class ChunkCache<V> {
+        private final long[] keys = emptyKeys(CACHED_CHUNKS);
+        private final Object[] values = new Object[CACHED_CHUNKS];
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            int slot = slotOf(key, CACHED_CHUNKS);
+            return (keys[slot] == key) ? (V)values[slot] : null;
+        }
+
+        void put(long key, V value) {
+            int slot = slotOf(key, CACHED_CHUNKS);
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * @return The chunk cached for the key, which is no longer cached, or null if there was none.
+         */
+        V remove(long key) {
+            V value = get(key);
+            if (value != null) {
+                int slot = slotOf(key, CACHED_CHUNKS);
+                keys[slot] = NO_CHUNK;
+                values[slot] = null;
+            }
+            return value;
+        }
+    }
+
+    private static long[] emptyKeys(int slots) {
+        long[] keys = new long[slots];
+        Arrays.fill(keys, NO_CHUNK);
+        return keys;
+    }
+
+    /**
+     * @return The home slot of a key in a power-of-two table, mixing the row and column into the top bits.
+     */
+    private static int slotOf(long key, int slots) {
+        return (int)((key * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - Integer.numberOfTrailingZeros(slots)));
+    }
+
+    private int minesIn(int tiles) { return (int)Math.round(density * tiles); }
+
+    private static long keyOf(int chunkRow, int chunkCol) { return (long)chunkRow << 32 | chunkCol; }
+
+    /**
+     * @return The mines of a chunk, one long per row with column 0 in the lowest bit.
+     */
+    private long[] layout(int chunkRow, int chunkCol) {
+        long key = keyOf(chunkRow, chunkCol);
+        if (key == lastLayoutKey)
+            return lastLayout;
+        long[] mines = layouts.get(key);
+
+        if (mines == null) {
+            int height = Math.min(CHUNK, rows - (chunkRow << CHUNK_SHIFT));
+            int width = Math.min(CHUNK, cols - (chunkCol << CHUNK_SHIFT));
+            int tiles = height * width;
+            SplittableRandom rng = new SplittableRandom(seed ^ (key * 0x9E3779B97F4A7C15L));
+            mines = new long[CHUNK];
+
+            // Floyd's sampling, with the layout as the sample set:
+            for (int j = tiles - minesIn(tiles) ; j < tiles ; j++) {
+                int pick = rng.nextInt(j + 1);
+                if ((mines[pick / width] & (1L << (pick % width))) != 0)
+                    pick = j;
+                mines[pick / width] |= 1L << (pick % width);
+            }
+            layouts.put(key, mines);
+        }
+
+        lastLayoutKey = key; // Still right once evicted, since a layout never changes.
+        lastLayout = mines;
+        return mines;
+    }
+
+    /**
+     * @return The packed tiles of a chunk moves have changed, or null if no move has.
+     */
+    private byte[] touched(long key) {
+        if (key != lastTouchedKey) {
+            byte[] tiles = touched.get(key);
+            if (tiles == null)
+                return null;
+            lastTouchedKey = key; // Touched chunks are kept for good, so this never goes stale.
+            lastTouched = tiles;
+        }
+        return lastTouched;
+    }
+
+    /**
+     * @return True if (row, col) is on the board and holds a mine, False otherwise.
+     */
+    private boolean isMine(long row, long col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            return false;
+        return (layout((int)(row >>> CHUNK_SHIFT), (int)(col >>> CHUNK_SHIFT))[(int)row & CHUNK_MASK] & (1L << col)) != 0;
+    }
+
+    /**
+     * Generates the packed tiles of a chunk, every one covered, counting mines across its borders.
+     */
+    private byte[] generate(int chunkRow, int chunkCol) {
+        long[] mines = layout(chunkRow, chunkCol);
+        byte[] tiles = new byte[CHUNK * CHUNK];
+        long top = (long)chunkRow << CHUNK_SHIFT;
+        long left = (long)chunkCol << CHUNK_SHIFT;
+        int height = (int)Math.min(CHUNK, rows - top);
+        int width = (int)Math.min(CHUNK, cols - left);
+
+        for (int row = 0 ; row < height ; row++) {
+            for (int col = 0 ; col < width ; col++) {
+                boolean inside = row > 0 && row < CHUNK - 1 && col > 0 && col < CHUNK - 1;
+                int count = 0;
+
+                for (int d_row = row - 1 ; d_row <= row + 1 ; d_row++)
+                    for (int d_col = col - 1 ; d_col <= col + 1 ; d_col++)
+                        if ((d_row != row || d_col != col) && (inside
+                                ? (mines[d_row] & (1L << d_col)) != 0
+                                : isMine(top + d_row, left + d_col)))
+                            count++;
+
+                boolean mine = (mines[row] & (1L << col)) != 0;
+                tiles[row << CHUNK_SHIFT | col] = (byte)((mine ? Minesweeper.MINE_BIT : 0) | COVERED | count);
+            }
+        }
+
+        return tiles;
+    }
+
+    /**
+     * @param write Whether the chunk is about to be changed, which keeps it for good.
+     * @return The packed tiles of the chunk holding (row, col).
+     */
+    private byte[] chunkOf(int row, int col, boolean write) {
+        int chunkRow = row >>> CHUNK_SHIFT;
+        int chunkCol = col >>> CHUNK_SHIFT;
+        long key = keyOf(chunkRow, chunkCol);
+        byte[] tiles = touched(key);
+
+        if (tiles == null) {
+            tiles = (write) ? clean.remove(key) : clean.get(key);
+            if (tiles == null)
+                tiles = generate(chunkRow, chunkCol);
+            if (write)
+                touched.put(key, tiles);
+            else
+                clean.put(key, tiles);
+        }
+
+        return tiles;
+    }
+
+    private static int offsetOf(int row, int col) { return (row & CHUNK_MASK) << CHUNK_SHIFT | (col & CHUNK_MASK); }
+
+    private static TileState stateOf(byte value) {
+        return STATES[(value & Minesweeper.STATE_MASK) >>> Minesweeper.STATE_SHIFT];
+    }
+
+    /**
+     * @return The state of the tile at (row, col), without generating its chunk if it is untouched.
+     */
+    private TileState stateAt(int row, int col) {
+        byte[] tiles = touched(keyOf(row >>> CHUNK_SHIFT, col >>> CHUNK_SHIFT));
+        return (tiles == null) ? TileState.COVERED : stateOf(tiles[offsetOf(row, col)]);
+    }
+
+    /**
+     * Changes the state of a tile and keeps the flag and covered-safe counters in step.
+     */
+    private void setState(int row, int col, TileState tileState) {
+        byte[] tiles = chunkOf(row, col, true);
+        int offset = offsetOf(row, col);
+        byte value = tiles[offset];
+        TileState old = stateOf(value);
+
+        if (old == TileState.FLAGGED)
+            flagCount--;
+        if (tileState == TileState.FLAGGED)
+            flagCount++;
+        if (tileState == TileState.UNCOVERED && (value & Minesweeper.MINE_BIT) == 0)
+            coveredSafe--;
+
+        tiles[offset] = (byte)((value & ~Minesweeper.STATE_MASK) | (tileState.ordinal() << Minesweeper.STATE_SHIFT));
+    }
+
+    private boolean inBounds(int row, int col) { return row >= 0 && row < rows && col >= 0 && col < cols; }
+
+    /**
+     * @return The number of moves made.
+     */
+    public int getMoveCount() { return moveCount; }
+
+    /**
+     * @return The number of tiles uncovered by moves, including those opened by a cascade.
+     */
+    public long getRevealedCount() { return revealedCount; }
+
+    /**
+     * @return The number of safe tiles that are still covered.
+     */
+    public long getCoveredSafeCount() { return coveredSafe; }
+
+    /**
+     * @return The number of flags on the board.
+     */
+    public int getFlagCount() { return flagCount; }
+
+    /**
+     * @return The number of mines on the board.
+     */
+    public long getMineCount() { return mineCount; }
+
+    /**
+     * @return The number of mines minus the number of flags placed.
+     */
+    public long getMinesLeft() { return mineCount - flagCount; }
+
+    /**
+     * @return The current state of the game.
+     */
+    public GameState getGameState() { return state; }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int getCols() { return cols; }
+
+    /**
+     * @return The number of chunks kept because a move changed them.
+     */
+    public int getTouchedChunkCount() { return touched.size(); }
+
+    /**
+     * @param loc The checked tile's Location.
+     * @return True if the tile is covered, False otherwise.
+     * @throws MinesweeperException If the Location is not on the board.
+     */
+    public boolean isCovered(Location loc) throws MinesweeperException {
+        if (loc == null || !inBounds(loc.getRow(), loc.getCol()))
+            throw new MinesweeperException("Invalid location!");
+
+        return !revealed && stateAt(loc.getRow(), loc.getCol()) == TileState.COVERED;
+    }
+
+    /**
+     * @param row The row checked for a CLI symbol.
+     * @param col The column checked for a CLI symbol.
+     * @return The CLI symbol at the supplied row and column. Once the game is over every tile
+     *         reads as uncovered, generating its chunk if need be, without the board being swept.
+     * @throws MinesweeperException If the tile is not on the board.
+     */
+    public char getSymbol(int row, int col) throws MinesweeperException {
+        if (!inBounds(row, col))
+            throw new MinesweeperException("Invalid location!");
+
+        TileState tileState = stateAt(row, col);
+        if (!revealed && (tileState == TileState.COVERED))
+            return Minesweeper.symbolFor(COVERED);
+
+        byte value = chunkOf(row, col, false)[offsetOf(row, col)];
+        if (revealed && tileState != TileState.DETONATED)
+            value = (byte)((value & ~Minesweeper.STATE_MASK) | (TileState.UNCOVERED.ordinal() << Minesweeper.STATE_SHIFT));
+        return Minesweeper.symbolFor(value);
+    }
+
+    /**
+     * @param loc The Location checked for a CLI symbol.
+     * @return The CLI symbol at the supplied Location.
+     * @throws MinesweeperException If the Location is not on the board.
+     */
+    public char getSymbol(Location loc) throws MinesweeperException {
+        if (loc == null)
+            throw new MinesweeperException("Invalid location!");
+        return getSymbol(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Flags or unflags a tile without throwing on an invalid move.
+     * @param loc The location selected for a move.
+     * @return OK if the tile was flagged or unflagged, otherwise why the move was rejected.
+     */
+    public MoveResult tryFlag(Location loc) {
+        if (loc == null || !inBounds(loc.getRow(), loc.getCol()))
+            return MoveResult.INVALID_LOCATION;
+
+        if (revealed)
+            return MoveResult.UNCOVERED;
+
+        TileState tileState = stateAt(loc.getRow(), loc.getCol());
+        if (tileState != TileState.COVERED && tileState != TileState.FLAGGED)
+            return MoveResult.UNCOVERED;
+
+        setState(loc.getRow(), loc.getCol(), (tileState == TileState.COVERED) ? TileState.FLAGGED : TileState.COVERED);
+        return MoveResult.OK;
+    }
+
+    /**
+     * @param loc The location selected for a move.
+     * @throws MinesweeperException On an invalid move.
+     */
+    public void flag(Location loc) throws MinesweeperException {
+        if (tryFlag(loc) != MoveResult.OK)
+            throw new MinesweeperException("Invalid flag!");
+    }
+
+    /**
+     * @param loc The location selected for a move.
+     * @throws MinesweeperException On an invalid move.
+     */
+    public void makeSelection(Location loc) throws MinesweeperException {
+        if (tryMakeSelection(loc) != MoveResult.OK)
+            throw new MinesweeperException("Invalid move!");
+    }
+
+    /**
+     * Makes a selection without throwing on an invalid move.
+     * @param loc The location selected for a move.
+     * @return OK if the move was made, otherwise why the move was rejected.
+     */
+    public MoveResult tryMakeSelection(Location loc) {
+        if (loc == null || !inBounds(loc.getRow(), loc.getCol()))
+            return MoveResult.INVALID_LOCATION;
+
+        if (state != GameState.IN_PROGRESS)
+            return MoveResult.GAME_OVER;
+
+        int row = loc.getRow();
+        int col = loc.getCol();
+        TileState tileState = stateAt(row, col);
+
+        if (tileState == TileState.UNCOVERED)
+            return MoveResult.UNCOVERED;
+
+        if (tileState == TileState.FLAGGED) // Unflag location if flagged BUT don't uncover.
+            return tryFlag(loc);
+
+        moveCount++;
+        if (isMine(row, col)) { // The rest of the board is shown lazily by getSymbol.
+            setState(row, col, TileState.DETONATED);
+            state = GameState.LOST;
+            revealed = true;
+        } else {
+            revealedCount += clearSurrounding(row, col);
+
+            if (coveredSafe == 0) {
+                state = GameState.WON;
+                revealed = true;
+            }
+        }
+
+        return MoveResult.OK;
+    }
+
+    /**
+     * Uncovers (row, col) and flood fills outwards through connected tiles with no adjacent mines,
+     * breadth first over packed coordinates so the fill crosses chunk borders without recursion.
+     * @return The number of tiles uncovered.
+     */
+    private long clearSurrounding(int row, int col) {
+        if (cascade == null)
+            cascade = new long[64];
+
+        int head = 0;
+        int size = 0;
+        long opened = 1;
+
+        setState(row, col, TileState.UNCOVERED);
+        if ((chunkOf(row, col, true)[offsetOf(row, col)] & Minesweeper.COUNT_MASK) == 0)
+            cascade[size++] = (long)row << 32 | col;
+
+        while (size > 0) {
+            long tile = cascade[head];
+            head = (head + 1) % cascade.length;
+            size--;
+
+            int t_row = (int)(tile >>> 32);
+            int t_col = (int)tile;
+
+            for (int d_row = Math.max(t_row - 1, 0) ; d_row <= Math.min(t_row + 1, rows - 1) ; d_row++) {
+                for (int d_col = Math.max(t_col - 1, 0) ; d_col <= Math.min(t_col + 1, cols - 1) ; d_col++) {
+                    if (stateAt(d_row, d_col) != TileState.COVERED)
+                        continue;
+
+                    // Neighbours of a blank tile are never mines:
+                    setState(d_row, d_col, TileState.UNCOVERED);
+                    opened++;
+
+                    if ((chunkOf(d_row, d_col, true)[offsetOf(d_row, d_col)] & Minesweeper.COUNT_MASK) == 0) {
+                        if (size == cascade.length) { // Grow the ring buffer, unwrapping it in order.
+                            long[] grown = new long[cascade.length * 2];
+                            int tail = cascade.length - head;
+                            System.arraycopy(cascade, head, grown, 0, tail);
+                            System.arraycopy(cascade, 0, grown, tail, head);
+                            cascade = grown;
+                            head = 0;
+                        }
+                        cascade[(head + size++) % cascade.length] = (long)d_row << 32 | d_col;
+                    }
+                }
+            }
+        }
+
+        return opened;
+    }
+}
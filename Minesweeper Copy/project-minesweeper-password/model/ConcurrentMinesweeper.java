@@ -0,0 +1,432 @@
+package model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Minesweeper board that many players reveal and flag at once, for cooperative games on one
+ * shared board. Tiles are packed bytes laid out as in Minesweeper, and every change to a tile is
+ * one compare-and-set on its byte, so no move takes a lock, global or striped.
+ *
+ * Tiles only ever open, so cascades need no region locks either: a cascade opens each tile it
+ * reaches with a CAS, and two cascades that meet each stop at the tiles the other opened first.
+ * Every safe tile is opened by exactly one move, which takes what it opened off the covered-safe
+ * count in one atomic step. The move that takes the count to zero wins the game and the first
+ * detonation loses it; the game state changes once, by CAS, so it is linearizable. A move that
+ * finds the game already ended once its tiles have changed is turned away with GAME_OVER and not
+ * counted, and a mine it set off is put back the way the end of the game uncovered it.
+ *
+ * There is no undo and there are no observers. Players read tiles with getSymbol, or take a
+ * snapshot to render or solve.
+ */
+public class ConcurrentMinesweeper {
+    private static final VarHandle TILES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final TileState[] STATES = TileState.values();
+
+    private final byte[] tiles; // Indexed by row * cols + col, only accessed through TILES.
+    private final AtomicReference<GameState> state;
+    private final AtomicInteger coveredSafe; // Safe tiles left to uncover.
+    private final LongAdder revealedCount = new LongAdder(); // Counters no move decides on are striped.
+    private final LongAdder flagCount = new LongAdder();
+    private final LongAdder hintCount = new LongAdder();
+    private final LongAdder moveCount = new LongAdder();
+    private final AtomicLong hintSeed; // Each hint draws from a generator of its own seeded from this.
+    private final OptionalLong seed;
+    private final int mineCount;
+    private final int rows;
+    private final int cols;
+
+    /**
+     * Creates a shared board with mines placed from the seed.
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param mineCount The number of mines on the board (cannot be greater than the # of available tiles).
+     * @param seed The seed used to place mines.
+     * @throws MinesweeperException If the mineCount exceeds the # of available tiles.
+     */
+    public ConcurrentMinesweeper(int rows, int cols, int mineCount, long seed) throws MinesweeperException {
+        this(new Minesweeper(rows, cols, mineCount, seed));
+    }
+
+    /**
+     * Shares a copy of a game's board. The template is not changed and keeps its own tiles.
+     * A shared board has no first selection to keep clear, so a template with no selection
+     * yet has its copy's mines placed over the whole board, as a board from a seed does.
+     * @param template The Minesweeper to copy.
+     */
+    public ConcurrentMinesweeper(Minesweeper template) {
+        Minesweeper board = new Minesweeper(template);
+        board.placeMines(-1);
+
+        tiles = board.tiles();
+        state = new AtomicReference<>(board.getGameState());
+        coveredSafe = new AtomicInteger(board.getCoveredSafeCount());
+        revealedCount.add(board.getRevealedCount());
+        flagCount.add(board.getFlagCount());
+        hintCount.add(board.getHintCount());
+        moveCount.add(board.getMoveCount());
+        hintSeed = new AtomicLong(board.splitRng().nextLong());
+        seed = board.getSeed();
+        mineCount = board.getMineCount();
+        rows = board.getRows();
+        cols = board.getCols();
+    }
+
+    private byte tileAt(int index) { return (byte)TILES.getVolatile(tiles, index); }
+
+    private static TileState stateOf(byte value) {
+        return STATES[(value & Minesweeper.STATE_MASK) >>> Minesweeper.STATE_SHIFT];
+    }
+
+    private static boolean isMine(byte value) { return (value & Minesweeper.MINE_BIT) != 0; }
+
+    /**
+     * Changes the state of a tile if it still holds value.
+     * @return True if this thread made the change, False if another changed the tile first.
+     */
+    private boolean change(int index, byte value, TileState tileState) {
+        return TILES.compareAndSet(tiles, index, value, withState(value, tileState));
+    }
+
+    private static byte withState(byte value, TileState tileState) {
+        return (byte)((value & ~Minesweeper.STATE_MASK) | (tileState.ordinal() << Minesweeper.STATE_SHIFT));
+    }
+
+    /**
+     * @return The board index of the Location, or -1 if it is not on the board.
+     */
+    private int indexOf(Location loc) {
+        if (loc == null || loc.getRow() < 0 || loc.getRow() >= rows || loc.getCol() < 0 || loc.getCol() >= cols)
+            return -1;
+        return loc.getRow() * cols + loc.getCol();
+    }
+
+    /**
+     * @return The number of moves made by every player.
+     */
+    public int getMoveCount() { return moveCount.intValue(); }
+
+    /**
+     * @return The number of tiles uncovered by moves, including those opened by a cascade.
+     */
+    public int getRevealedCount() { return revealedCount.intValue(); }
+
+    /**
+     * @return The number of safe tiles that are still covered.
+     */
+    public int getCoveredSafeCount() { return coveredSafe.get(); }
+
+    /**
+     * @return The number of flags on the board.
+     */
+    public int getFlagCount() { return flagCount.intValue(); }
+
+    /**
+     * @return The number of hints on the board that have not been uncovered yet.
+     */
+    public int getHintCount() { return hintCount.intValue(); }
+
+    /**
+     * @return The number of mines minus the number of flags placed.
+     */
+    public int getMinesLeft() { return mineCount - getFlagCount(); }
+
+    /**
+     * @return The current state of the game.
+     */
+    public GameState getGameState() { return state.get(); }
+
+    /**
+     * @return The number of mines on the board.
+     */
+    public int getMineCount() { return mineCount; }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int getCols() { return cols; }
+
+    /**
+     * @param row The row checked for a CLI symbol.
+     * @param col The column checked for a CLI symbol.
+     * @return The CLI symbol at the supplied row and column.
+     * @throws MinesweeperException If the tile is not on the board.
+     */
+    public char getSymbol(int row, int col) throws MinesweeperException {
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new MinesweeperException("Invalid location!");
+
+        return Minesweeper.symbolFor(tileAt(row * cols + col));
+    }
+
+    /**
+     * Flags or unflags a tile.
+     * @param loc The location selected for a move.
+     * @return OK if the tile was flagged or unflagged, otherwise why the move was rejected.
+     */
+    public MoveResult tryFlag(Location loc) {
+        int index = indexOf(loc);
+
+        if (index < 0)
+            return MoveResult.INVALID_LOCATION;
+
+        while (true) {
+            byte value = tileAt(index);
+            TileState tileState = stateOf(value);
+
+            if (tileState == TileState.HINTED)
+                return MoveResult.HINTED;
+
+            if (tileState != TileState.COVERED && tileState != TileState.FLAGGED)
+                return MoveResult.UNCOVERED;
+
+            if (change(index, value, (tileState == TileState.COVERED) ? TileState.FLAGGED : TileState.COVERED)) {
+                if (tileState == TileState.COVERED)
+                    flagCount.increment();
+                else
+                    flagCount.decrement();
+                return MoveResult.OK;
+            }
+        }
+    }
+
+    /**
+     * Makes a selection for one player. Moves from any number of threads may run at once.
+     * @param loc The location selected for a move.
+     * @return OK if the move was made, otherwise why the move was rejected.
+     */
+    public MoveResult tryMakeSelection(Location loc) {
+        int index = indexOf(loc);
+
+        if (index < 0)
+            return MoveResult.INVALID_LOCATION;
+
+        while (true) { // Retries whenever another player changes the tile between the read and the CAS.
+            if (state.get() != GameState.IN_PROGRESS)
+                return MoveResult.GAME_OVER;
+
+            byte value = tileAt(index);
+            TileState tileState = stateOf(value);
+
+            if (tileState == TileState.UNCOVERED || tileState == TileState.DETONATED)
+                return MoveResult.UNCOVERED;
+
+            if (tileState == TileState.FLAGGED) { // Unflag location if flagged BUT don't uncover.
+                if (change(index, value, TileState.COVERED)) {
+                    flagCount.decrement();
+                    return MoveResult.OK;
+                }
+                continue;
+            }
+
+            if (isMine(value)) {
+                if (!change(index, value, TileState.DETONATED))
+                    continue;
+
+                if (!finish(GameState.LOST)) { // Another move ended the game after the check above.
+                    change(index, withState(value, TileState.DETONATED), TileState.UNCOVERED);
+                    return MoveResult.GAME_OVER;
+                }
+                moveCount.increment();
+                return MoveResult.OK;
+            }
+
+            if (!uncover(index))
+                continue;
+
+            int revealed = 1 + (((value & Minesweeper.COUNT_MASK) == 0) ? clearSurrounding(index) : 0);
+
+            if (coveredSafe.addAndGet(-revealed) == 0) { // This move opened the last safe tile.
+                if (!finish(GameState.WON))
+                    return MoveResult.GAME_OVER;
+            } else if (state.get() != GameState.IN_PROGRESS) {
+                return MoveResult.GAME_OVER; // The tiles it opened are left uncovered, as the end would have.
+            }
+            moveCount.increment();
+            revealedCount.add(revealed);
+            return MoveResult.OK;
+        }
+    }
+
+    /**
+     * Uncovers a covered or hinted tile.
+     * @return True if this thread uncovered it, False if it is not covered or hinted (any more).
+     */
+    private boolean uncover(int index) {
+        while (true) {
+            byte value = tileAt(index);
+            TileState tileState = stateOf(value);
+
+            if (tileState != TileState.COVERED && tileState != TileState.HINTED)
+                return false;
+
+            if (change(index, value, TileState.UNCOVERED)) {
+                if (tileState == TileState.HINTED)
+                    hintCount.decrement();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Flood fills outwards from a blank tile this thread just uncovered. Tiles another player opens
+     * first are left to that player, so concurrent cascades share out a region between them.
+     * @param start The board index of the blank tile.
+     * @return The number of tiles this thread uncovered, not counting start.
+     */
+    private int clearSurrounding(int start) {
+        int[] stack = new int[64];
+        int size = 0;
+        int revealed = 0;
+
+        stack[size++] = start;
+        while (size > 0) {
+            int index = stack[--size];
+            int row = index / cols;
+            int col = index % cols;
+
+            for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++) {
+                for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++) {
+                    int d_index = d_row * cols + d_col;
+
+                    // Neighbours of a blank tile are never mines, so only the state needs checking:
+                    if (!uncover(d_index))
+                        continue;
+
+                    revealed++;
+                    if ((tileAt(d_index) & Minesweeper.COUNT_MASK) == 0) {
+                        if (size == stack.length)
+                            stack = Arrays.copyOf(stack, size * 2);
+                        stack[size++] = d_index;
+                    }
+                }
+            }
+        }
+
+        return revealed;
+    }
+
+    /**
+     * Ends the game if nobody has yet, and uncovers the board.
+     * @return True if this thread ended the game, False if it had already ended.
+     */
+    private boolean finish(GameState end) {
+        if (!state.compareAndSet(GameState.IN_PROGRESS, end))
+            return false;
+
+        int safe = 0;
+        for (int index = 0 ; index < tiles.length ; index++) {
+            while (true) {
+                byte value = tileAt(index);
+                TileState tileState = stateOf(value);
+
+                if (tileState == TileState.UNCOVERED || tileState == TileState.DETONATED)
+                    break;
+
+                if (change(index, value, TileState.UNCOVERED)) {
+                    if (tileState == TileState.FLAGGED)
+                        flagCount.decrement();
+                    else if (tileState == TileState.HINTED)
+                        hintCount.decrement();
+                    if (!isMine(value))
+                        safe++;
+                    break;
+                }
+            }
+        }
+        coveredSafe.addAndGet(-safe);
+        return true;
+    }
+
+    /**
+     * Hints a covered, safe tile, searching from a random tile onwards. The tile is drawn from
+     * the game's generator, so hints given one at a time on a seeded game can be replayed.
+     * @return The Location of the hint, or null if no tile could be hinted.
+     */
+    public Location giveHint() {
+        int start = new SplittableRandom(hintSeed.getAndIncrement()).nextInt(tiles.length);
+
+        for (int i = 0 ; i < tiles.length ; i++) {
+            int index = (start + i) % tiles.length;
+
+            while (true) {
+                byte value = tileAt(index);
+                TileState tileState = stateOf(value);
+
+                if (isMine(value) || (tileState != TileState.COVERED && tileState != TileState.FLAGGED))
+                    break;
+
+                if (change(index, value, TileState.HINTED)) {
+                    if (tileState == TileState.FLAGGED)
+                        flagCount.decrement();
+                    hintCount.increment();
+                    return new Location(index / cols, index % cols);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Copies the board into a Minesweeper, for rendering or for a MinesweeperSolver, while play
+     * goes on. Tiles are read one at a time, so a move in flight may be partly included; the
+     * snapshot's counters and state are worked out from the tiles it holds, so they always agree.
+     * @return A copy of the board with no history and no observers.
+     */
+    public Minesweeper snapshot() {
+        byte[] copy = new byte[tiles.length];
+        int flags = 0;
+        int hints = 0;
+        int covered = 0;
+        boolean detonated = false;
+
+        for (int index = 0 ; index < copy.length ; index++) {
+            byte value = tileAt(index);
+            TileState tileState = stateOf(value);
+            copy[index] = value;
+
+            if (tileState == TileState.FLAGGED)
+                flags++;
+            else if (tileState == TileState.HINTED)
+                hints++;
+            else if (tileState == TileState.DETONATED)
+                detonated = true;
+
+            if (tileState != TileState.UNCOVERED && !isMine(value))
+                covered++;
+        }
+
+        Minesweeper game;
+        try { game = new Minesweeper(rows, cols, 0, new SplittableRandom());
+        } catch (MinesweeperException e) { throw new IllegalStateException(e); } // The size came from a valid game.
+
+        if (detonated && state.get() == GameState.WON) { // Mines set off after the win are being put back.
+            detonated = false;
+            for (int index = 0 ; index < copy.length ; index++)
+                if (stateOf(copy[index]) == TileState.DETONATED)
+                    copy[index] = withState(copy[index], TileState.UNCOVERED);
+        }
+
+        GameState snapshotState = detonated ? GameState.LOST : (covered == 0) ? GameState.WON : GameState.IN_PROGRESS;
+        game.restoreTiles(copy);
+        game.restore(snapshotState, mineCount, seed.orElse(0), seed.isPresent(), getMoveCount(), getRevealedCount(),
+            flags, hints, covered, null);
+        return game;
+    }
+
+    @Override
+    public String toString() { return snapshot().toString(); }
+}
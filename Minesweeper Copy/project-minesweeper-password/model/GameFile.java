@@ -0,0 +1,175 @@
+package model;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Saves and loads games in a compact binary format. A file is a fixed header, a bitset of the
+ * mines, a plane of 3-bit tile states and, optionally, the move journal so undo and redo survive
+ * a reload. Adjacent mine counts are not stored; they are rebuilt from the mines on load, a row
+ * at a time through BoardKernel. A game saved before its first selection has no mines yet, and
+ * is loaded without them, so it still places them clear of its first selection. The counts in
+ * the header are checked against the tiles on load, so a corrupt file is rejected rather than
+ * loaded into a game that cannot be played.
+ *
+ * Files are read and written through memory maps, so a board is copied once, straight between
+ * the page cache and the game.
+ */
+public class GameFile {
+    private static final int MAGIC = 0x4D535750; // "MSWP"
+    private static final short VERSION = 1;
+    private static final short SEEDED = 1;
+    private static final short JOURNAL = 2;
+    private static final int HEADER_SIZE = 56;
+    private static final int STATES_PER_WORD = 21; // 3 bits each, the top bit of every word unused.
+    private static final GameState[] GAME_STATES = GameState.values();
+    private static final TileState[] STATES = TileState.values();
+
+    private GameFile() {}
+
+    /**
+     * @param game The game to save.
+     * @param path Where to save it. An existing file is replaced.
+     * @param withJournal Whether to save the moves that can be undone and redone.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void save(Minesweeper game, Path path, boolean withJournal) throws IOException {
+        int tiles = game.getRows() * game.getCols();
+        int mineWords = (tiles + Long.SIZE - 1) / Long.SIZE;
+        int stateWords = (tiles + STATES_PER_WORD - 1) / STATES_PER_WORD;
+        long size = HEADER_SIZE + (long)(mineWords + stateWords) * Long.BYTES
+            + (withJournal ? game.journal().byteSize() : 0);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(MAGIC).putShort(VERSION)
+                .putShort((short)((game.getSeed().isPresent() ? SEEDED : 0) | (withJournal ? JOURNAL : 0)))
+                .putInt(game.getRows()).putInt(game.getCols()).putInt(game.getMineCount())
+                .putLong(game.getSeed().orElse(0))
+                .putInt(game.getGameState().ordinal()).putInt(game.getMoveCount()).putInt(game.getRevealedCount())
+                .putInt(game.getFlagCount()).putInt(game.getHintCount()).putInt(game.getCoveredSafeCount());
+            buffer.position(HEADER_SIZE);
+
+            LongBuffer words = buffer.asLongBuffer();
+            for (int word = 0 ; word < mineWords ; word++)
+                words.put(game.mineBits(word));
+
+            // States are stored relative to COVERED, so untouched stretches of board are zero words.
+            for (int word = 0 ; word < stateWords ; word++) {
+                long bits = 0;
+                for (int index = word * STATES_PER_WORD, end = Math.min(index + STATES_PER_WORD, tiles), shift = 0 ; index < end ; index++, shift += 3)
+                    bits |= (long)(game.stateOf(index).ordinal() ^ TileState.COVERED.ordinal()) << shift;
+                words.put(bits);
+            }
+
+            if (withJournal) {
+                buffer.position(HEADER_SIZE + (mineWords + stateWords) * Long.BYTES);
+                game.journal().write(buffer);
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * @param path A file written by save.
+     * @return The saved game, with no observers.
+     * @throws IOException If the file cannot be read or is not a saved game.
+     */
+    public static Minesweeper load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException("Not a Minesweeper save file: " + path);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION)
+                throw new IOException("Not a Minesweeper save file: " + path);
+
+            short flags = buffer.getShort();
+            int rows = buffer.getInt();
+            int cols = buffer.getInt();
+            int mineCount = buffer.getInt();
+            long seed = buffer.getLong();
+            int stateOrdinal = buffer.getInt();
+            int moveCount = buffer.getInt();
+            int revealedCount = buffer.getInt();
+            int flagCount = buffer.getInt();
+            int hintCount = buffer.getInt();
+            int coveredSafe = buffer.getInt();
+
+            long tiles = (long)rows * cols;
+            int mineWords = (int)((tiles + Long.SIZE - 1) / Long.SIZE);
+            int stateWords = (int)((tiles + STATES_PER_WORD - 1) / STATES_PER_WORD);
+            if (stateOrdinal < 0 || stateOrdinal >= GAME_STATES.length || moveCount < 0
+                    || channel.size() < HEADER_SIZE + (long)(mineWords + stateWords) * Long.BYTES)
+                throw new IOException("Corrupt Minesweeper save file: " + path);
+
+            boolean seeded = (flags & SEEDED) != 0;
+            Minesweeper game;
+            try { game = seeded ? new Minesweeper(rows, cols, 0, seed) : new Minesweeper(rows, cols, 0, new SplittableRandom());
+            } catch (MinesweeperException e) { throw new IOException("Corrupt Minesweeper save file: " + path, e); }
+
+            buffer.position(HEADER_SIZE);
+            LongBuffer words = buffer.asLongBuffer();
+
+            int mines = 0;
+            for (int word = 0 ; word < mineWords ; word++) {
+                for (long bits = words.get() ; bits != 0 ; bits &= bits - 1, mines++) {
+                    int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    if (index >= tiles)
+                        throw new IOException("Corrupt Minesweeper save file: " + path);
+                    game.restoreMine(index);
+                }
+            }
+            game.recountMines();
+
+            int uncoveredSafe = 0, opened = 0, flagged = 0, hinted = 0;
+            for (int word = 0 ; word < stateWords ; word++) {
+                long bits = words.get();
+                for (int index = word * STATES_PER_WORD ; bits != 0 ; index++, bits >>>= 3) {
+                    int state = (int)(bits & 7) ^ TileState.COVERED.ordinal();
+                    if (state >= STATES.length || index >= tiles)
+                        throw new IOException("Corrupt Minesweeper save file: " + path);
+                    if (state == TileState.COVERED.ordinal())
+                        continue;
+
+                    TileState tileState = STATES[state];
+                    boolean mine = game.isMine(index);
+                    game.restoreTile(index, mine, tileState);
+                    if (tileState == TileState.UNCOVERED || tileState == TileState.DETONATED)
+                        opened++;
+                    if (tileState == TileState.UNCOVERED && !mine)
+                        uncoveredSafe++;
+                    else if (tileState == TileState.FLAGGED)
+                        flagged++;
+                    else if (tileState == TileState.HINTED)
+                        hinted++;
+                }
+            }
+
+            // A game with no mines yet has uncovered nothing; one with mines has the number it says.
+            boolean unplaced = mines == 0 && mineCount > 0;
+            if (mineCount < 0 || mineCount > tiles || (!unplaced && mines != mineCount) || (unplaced && opened > 0)
+                    || flagCount != flagged || hintCount != hinted || coveredSafe != tiles - mineCount - uncoveredSafe
+                    || revealedCount < 0 || revealedCount > uncoveredSafe)
+                throw new IOException("Corrupt Minesweeper save file: " + path);
+
+            MoveJournal journal = null;
+            if ((flags & JOURNAL) != 0) {
+                buffer.position(HEADER_SIZE + (mineWords + stateWords) * Long.BYTES);
+                try { journal = MoveJournal.read(buffer, (int)tiles);
+                } catch (IOException | RuntimeException e) { throw new IOException("Corrupt Minesweeper save file: " + path, e); }
+            }
+
+            game.restore(GAME_STATES[stateOrdinal], mineCount, seed, seeded, moveCount, revealedCount,
+                flagCount, hintCount, coveredSafe, journal);
+            return game;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import metrics.Histogram;
+import metrics.Metrics;
+
+/**
+ * The metrics a Minesweeper game records for each selection once they are attached with
+ * setMetrics. One GameMetrics can be shared by any number of games, on any threads.
+ * Each selection is also committed as a minesweeper.Move JFR event when a recording enables it.
+ */
+public class GameMetrics {
+    private Histogram latency;
+    private Histogram cascade;
+    private Histogram notifications;
+    private LongAdder moves;
+
+    /**
+     * @param metrics The registry the game's metrics are kept in, under names starting with "move.".
+     */
+    public GameMetrics(Metrics metrics) {
+        latency = metrics.histogram("move.nanos");
+        cascade = metrics.histogram("move.cascade");
+        notifications = metrics.histogram("move.notifications");
+        moves = metrics.counter("move.count");
+    }
+
+    /**
+     * Records one selection.
+     * @param nanos How long the selection took, including notifying observers.
+     * @param revealed The number of tiles the selection uncovered.
+     * @param notified The number of tile updates sent to observers.
+     */
+    void moveMade(long nanos, int revealed, int notified) {
+        latency.record(nanos);
+        cascade.record(revealed);
+        notifications.record(notified);
+        moves.increment();
+
+        MoveEvent event = new MoveEvent();
+        if (event.shouldCommit()) {
+            event.latency = nanos;
+            event.cascade = revealed;
+            event.notifications = notified;
+            event.commit();
+        }
+    }
+}
@@ -1,34 +1,65 @@
 package model;
 
+import java.io.IOException;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.random.RandomGenerator;
 
-import backtracker.Backtracker;
 import backtracker.Configuration;
+import backtracker.UndoableConfiguration;
 
 import java.util.List;
-import java.util.Map;
+import java.util.OptionalLong;
 
-public class Minesweeper implements Configuration{
+public class Minesweeper implements UndoableConfiguration<Location>{
     private static final char TILE = ' ';
     private static final char MINE = 'M';
     private static final char HINTED = 'H';
     private static final char FLAGGED = 'F';
     private static final char COVERED = '-';
     private static final char DETONATED = 'X';
-    private static final Random rng = new Random();
 
-    private static final int[][] DELTAS = {{-1,1},{0,1},{1,1},{1,0},
-                                            {1,-1},{0,-1},{-1,-1},{-1,0}};
+    // Each tile is packed into a single byte: [mine:1][TileState ordinal:3][adjacent mines:4]
+    static final int COUNT_MASK = 0x0F;
+    static final int STATE_MASK = 0x70;
+    static final int STATE_SHIFT = 4;
+    static final int MINE_BIT = 0x80;
+    private static final TileState[] STATES = TileState.values();
+    private static final char[] SYMBOLS = new char[1 << 8]; // CLI symbol for every packed tile value.
+
+    static {
+        for (int value = 0 ; value < SYMBOLS.length ; value++) {
+            int ordinal = (value & STATE_MASK) >>> STATE_SHIFT;
+
+            if (ordinal < STATES.length)
+                SYMBOLS[value] = symbolOf(STATES[ordinal], (value & MINE_BIT) != 0, value & COUNT_MASK);
+        }
+    }
 
     private List<Location> solveSelections;
-    private MinesweeperObserver observer;
-    private Map<Location, MSTile> board;
+    private List<MinesweeperObserver> observers;
+    private BoardChange changes; // Tiles changed by the current move, only kept while observed.
+    private MoveJournal journal;
+    private GameMetrics metrics; // Null unless metrics are attached.
+    private Board board; // Indexed by row * cols + col.
+    private BoardArena arena; // Where the board is kept off the heap, null to keep it on the heap.
+    private Bitplane mines; // Bitplanes mirroring the board for scans that skip 64 tiles a word.
+    private Bitplane open; // Uncovered or detonated.
+    private Bitplane hinted;
+    private int[] cascade; // Reusable ring buffer for flood fill reveals.
+    private SplittableRandom rng; // Owned by this game only, so games can be built in parallel.
+    private long start; // The seed of rng, which has drawn nothing until the mines are placed.
+    private long seed; // The seed the board was generated from, if seeded.
+    private boolean seeded;
+    private boolean placed; // False until the first selection places the mines.
     private GameState state;
+    private int coveredSafe; // Safe tiles left to uncover.
+    private int revealedCount;
+    private int flagCount;
+    private int hintCount;
     private int moveCount;
     private int mineCount;
     private int rows;
@@ -41,13 +72,78 @@ public class Minesweeper implements Configuration{
      * @throws MinesweeperException If the mineCount exceeds the # of available tiles.
      */
     public Minesweeper(int rows, int cols, int mineCount) throws MinesweeperException {
-        if (mineCount > rows * cols)
+        this(rows, cols, mineCount, new SplittableRandom());
+    }
+
+    /**
+     * Creates a game whose boards can be replayed from the seed and the first selection.
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param mineCount The number of mines on the board (cannot be greater than the # of available tiles).
+     * @param seed The seed used to place mines and pick hints.
+     * @throws MinesweeperException If the mineCount exceeds the # of available tiles.
+     */
+    public Minesweeper(int rows, int cols, int mineCount, long seed) throws MinesweeperException {
+        this(rows, cols, mineCount, seed, true, null);
+    }
+
+    /**
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param mineCount The number of mines on the board (cannot be greater than the # of available tiles).
+     * @param rng The generator the seed of this game's own generator, which places mines and picks hints, is drawn from.
+     * @throws MinesweeperException If the mineCount exceeds the # of available tiles.
+     */
+    public Minesweeper(int rows, int cols, int mineCount, RandomGenerator rng) throws MinesweeperException {
+        this(rows, cols, mineCount, rng, null);
+    }
+
+    /**
+     * Creates a seeded game whose board, and the boards of its copies, are kept off the heap.
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param mineCount The number of mines on the board (cannot be greater than the # of available tiles).
+     * @param seed The seed used to place mines and pick hints.
+     * @param arena The arena to allocate boards from, which must stay open while the game is played.
+     * @throws MinesweeperException If the mineCount exceeds the # of available tiles.
+     */
+    public Minesweeper(int rows, int cols, int mineCount, long seed, BoardArena arena) throws MinesweeperException {
+        this(rows, cols, mineCount, seed, true, arena);
+    }
+
+    /**
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param mineCount The number of mines on the board (cannot be greater than the # of available tiles).
+     * @param rng The generator the seed of this game's own generator, which places mines and picks hints, is drawn from.
+     * @param arena The arena to allocate boards from, or null to keep the board on the heap.
+     * @throws MinesweeperException If the mineCount exceeds the # of available tiles.
+     */
+    public Minesweeper(int rows, int cols, int mineCount, RandomGenerator rng, BoardArena arena) throws MinesweeperException {
+        this(rows, cols, mineCount, rng.nextLong(), false, arena);
+    }
+
+    /**
+     * @param start The seed of the generator that places mines and picks hints.
+     * @param seeded Whether start was chosen by the caller, and so can be reported as the seed.
+     */
+    private Minesweeper(int rows, int cols, int mineCount, long start, boolean seeded, BoardArena arena) throws MinesweeperException {
+        if (mineCount < 0 || mineCount > (long)rows * cols)
             throw new MinesweeperException("Cannot instantiate Minesweeper with more mines than available tiles.");
     
-        if (rows <= 0 || cols <= 0)
+        if (rows <= 0 || cols <= 0 || (long)rows * cols > Integer.MAX_VALUE)
             throw new MinesweeperException("Invalid number of rows or columns.");
 
+        this.start = start;
+        rng = new SplittableRandom(start);
+        if (seeded) {
+            seed = start;
+            this.seeded = true;
+        }
+        this.arena = arena;
         solveSelections = new ArrayList<>();
+        observers = new CopyOnWriteArrayList<>();
+        journal = new MoveJournal();
         state = GameState.IN_PROGRESS;
         this.mineCount = mineCount;
         this.rows = rows;
@@ -58,66 +154,453 @@ public class Minesweeper implements Configuration{
     }
 
     /**
-     * Clone constructor.
-     * @param template The Minesweeper to make a deep copy of.
+     * Clone constructor. Board pages are shared with the template until either game changes them,
+     * so a copy costs a pointer per page plus the pages its moves touch. Boards kept off the heap
+     * are copied whole, in one bulk copy, into the same arena. A template with no selection yet
+     * is copied without mines, and the copy places the same mines the template would at the
+     * same first selection, clear of the tile selected.
+     * @param template The Minesweeper to copy.
      */
     public Minesweeper(Minesweeper template) {
+        placed = template.placed;
+        coveredSafe = template.coveredSafe;
+        revealedCount = template.revealedCount;
+        flagCount = template.flagCount;
+        hintCount = template.hintCount;
         moveCount = template.moveCount;
         mineCount = template.mineCount;
         state = template.state;
         rows = template.rows;
         cols = template.cols;
+        seed = template.seed;
+        seeded = template.seeded;
+
+        observers = new CopyOnWriteArrayList<>();
+        arena = template.arena;
+        board = template.board.copy();
+        mines = new Bitplane(template.mines);
+        open = new Bitplane(template.open);
+        hinted = new Bitplane(template.hinted);
+        start = template.copyStart();
+        rng = new SplittableRandom(start);
+
+        solveSelections = new ArrayList<>(template.solveSelections); // Locations are never mutated.
+        journal = new MoveJournal(); // Copies start without history.
+    }
 
-        observer = null;
-        board = new HashMap<>();
-        for (Location loc : template.board.keySet())
-            board.put(loc, new MSTile(template.board.get(loc)));
+    /**
+     * Creates a covered playing board. No mines are placed until the first selection, which
+     * keeps them off the tile selected and its neighbours, so a new board or a reset costs
+     * no more than clearing the tiles.
+     */
+    private void makeBoard() {
+        byte covered = (byte)(TileState.COVERED.ordinal() << STATE_SHIFT);
+
+        if (board != null) // Off-heap boards are refilled in place.
+            board = board.blank(covered);
+        else if (arena != null)
+            board = new OffHeapBoard(arena, rows * cols, covered);
+        else
+            board = new PagedBoard(rows * cols, covered);
+        mines = new Bitplane(board.length());
+        open = new Bitplane(board.length());
+        hinted = new Bitplane(board.length());
+        coveredSafe = board.length() - mineCount;
+        revealedCount = 0;
+        flagCount = 0;
+        hintCount = 0;
+        placed = false;
+        changedAll();
+    }
 
-        solveSelections = new ArrayList<>();
-        for (Location loc : template.solveSelections)
-            solveSelections.add(new Location(loc.getRow(), loc.getCol()));
+    /**
+     * Places the mines unless they already are. Those placed by the first selection avoid the
+     * selected tile and its neighbours, or just the tile when the board is too full for that,
+     * or nothing at all when every tile is a mine.
+     * @param click The board index of the tile to keep clear, or -1 to place over the whole board.
+     */
+    void placeMines(int click) {
+        if (placed)
+            return;
+
+        int[] clear = new int[0]; // Board indices kept free of mines, in ascending order.
+
+        if (click >= 0) {
+            int row = click / cols;
+            int col = click % cols;
+            int top = Math.max(row - 1, 0), bottom = Math.min(row + 1, rows - 1);
+            int left = Math.max(col - 1, 0), right = Math.min(col + 1, cols - 1);
+            int zone = (bottom - top + 1) * (right - left + 1);
+
+            if (mineCount <= board.length() - zone) {
+                clear = new int[zone];
+                for (int d_row = top, i = 0 ; d_row <= bottom ; d_row++)
+                    for (int d_col = left ; d_col <= right ; d_col++)
+                        clear[i++] = d_row * cols + d_col;
+            } else if (mineCount < board.length()) {
+                clear = new int[] { click };
+            }
+        }
+
+        sampleMines(clear);
+        placed = true;
     }
 
     /**
-     * Creates the playing board and randomly generates mines based on the mineCount.
+     * Places mineCount mines uniformly at random with Floyd's sampling over the tiles not in clear,
+     * numbered as if the clear tiles were cut out of the board. The mine bits double as the sample
+     * set, so nothing is allocated and only min(mineCount, safe tiles) random draws are made:
+     * boards more than half mines start out full and sample the safe tiles instead.
+     * @param clear The board indices to keep free of mines, in ascending order.
      */
-    private void makeBoard() {
-        board = new HashMap<>();
-        int i = 0; // Keeps track of added mines.
-
-        for (int row = 0 ; row < rows ; row++) {
-            for (int col = 0 ; col < cols ; col++) {
-                Location loc = new Location(row, col);
-                board.put(loc, new MSTile());
-                notifyObserver(loc);
+    private void sampleMines(int[] clear) {
+        int free = board.length() - clear.length;
+        boolean dense = mineCount > free / 2;
+        int samples = dense ? free - mineCount : mineCount;
+
+        if (dense) { // Every tile is a mine and every neighbour count is full.
+            for (int index = 0 ; index < board.length() ; index++) {
+                int row = index / cols;
+                int col = index % cols;
+                int neighbours = (Math.min(row + 1, rows - 1) - Math.max(row - 1, 0) + 1)
+                               * (Math.min(col + 1, cols - 1) - Math.max(col - 1, 0) + 1) - 1;
+
+                board.set(index, (byte)(board.get(index) | MINE_BIT | neighbours));
+                mines.set(index, true);
             }
+            for (int index : clear)
+                setMine(index, false);
+        }
+
+        for (int j = free - samples ; j < free ; j++) {
+            int pick = skipping(rng.nextInt(j + 1), clear);
+
+            // Take pick if it is still unsampled, otherwise j (which never is yet):
+            setMine(isMine(pick) == dense ? pick : skipping(j, clear), !dense);
+        }
+    }
+
+    /**
+     * @param free An index among the tiles not in clear.
+     * @param clear Board indices in ascending order.
+     * @return The board index of that tile.
+     */
+    private static int skipping(int free, int[] clear) {
+        for (int index : clear) {
+            if (free < index)
+                break;
+            free++;
         }
-        
-        while (i < mineCount) {
-            // Randomly selects a location and attempts to set as a mine until the mineCount is hit:
-            int r_row = rng.nextInt(rows);
-            int r_col = rng.nextInt(cols);
-            MSTile tile = board.get(new Location(r_row, r_col));
-
-            if (!tile.isMine() && tile.isCovered()) {
-                tile.setMine();
-                i++;
+        return free;
+    }
+
+    /**
+     * @return True if (row, col) is on the board, False otherwise.
+     */
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * @param loc A Location on the board.
+     * @return The board index of the Location, or -1 if it is not on the board.
+     */
+    private int indexOf(Location loc) {
+        if (loc == null || !inBounds(loc.getRow(), loc.getCol()))
+            return -1;
+        return loc.getRow() * cols + loc.getCol();
+    }
+
+    /**
+     * @return The Location of a board index.
+     */
+    private Location locationOf(int index) {
+        return new Location(index / cols, index % cols);
+    }
+
+    boolean isMine(int index) { return (board.get(index) & MINE_BIT) != 0; }
+
+    /**
+     * Adds or removes a mine and keeps the adjacent-mine counts of its neighbours in step,
+     * so counts are only ever touched when a mine moves and never recounted on lookup.
+     * @param index The board index of the tile.
+     * @param mine Whether or not the tile should hold a mine.
+     */
+    private void setMine(int index, boolean mine) {
+        if (mine == isMine(index))
+            return;
+
+        board.set(index, (byte)(board.get(index) ^ MINE_BIT));
+        mines.set(index, mine);
+        int delta = mine ? 1 : -1;
+        int row = index / cols;
+        int col = index % cols;
+
+        for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+            for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++)
+                if (d_row != row || d_col != col)
+                    board.set(d_row * cols + d_col, (byte)(board.get(d_row * cols + d_col) + delta)); // Count lives in the low nibble.
+    }
+
+    /**
+     * Recounts the adjacent mines of every tile from the mine bits, a row at a time through
+     * BoardKernel, for boards whose mines were placed without keeping counts in step.
+     */
+    void recountMines() {
+        BoardKernel kernel = BoardKernel.KERNEL;
+        byte[] tiles = new byte[cols];
+        byte[] above = new byte[cols + 2];
+        byte[] row = new byte[cols + 2];
+        byte[] below = new byte[cols + 2];
+
+        board.read(0, tiles, cols);
+        kernel.mines(tiles, below, cols);
+
+        for (int r = 0 ; r < rows ; r++) {
+            byte[] blank = above; // Rotate the rows down, reusing the one that drops off the top.
+            above = row;
+            row = below;
+            below = blank;
+
+            if (r + 1 < rows) {
+                board.read((r + 1) * cols, tiles, cols);
+                kernel.mines(tiles, below, cols);
+            } else {
+                Arrays.fill(below, (byte)0);
             }
+
+            board.read(r * cols, tiles, cols);
+            kernel.counts(above, row, below, tiles, cols);
+            board.write(r * cols, tiles, cols);
         }
     }
 
     /**
-     * Initializes an observer.
+     * Moves a mine to a tile without one, keeping the counts of both neighbourhoods in step.
+     * Used by generators to reshape a board that has not been played.
+     */
+    void moveMine(int from, int to) {
+        setMine(from, false);
+        setMine(to, true);
+    }
+
+    int adjacentMines(int index) { return board.get(index) & COUNT_MASK; }
+
+    /**
+     * @return The number shown on an uncovered, safe tile, or -1 if the player cannot see one.
+     */
+    int clueAt(int index) {
+        return (stateOf(index) == TileState.UNCOVERED && !isMine(index)) ? adjacentMines(index) : -1;
+    }
+
+    TileState stateOf(int index) { return STATES[(board.get(index) & STATE_MASK) >>> STATE_SHIFT]; }
+
+    /**
+     * Changes the state of a tile, keeps the flag, hint and covered-safe counters in step
+     * and records the change in the journal if a move is being recorded.
+     */
+    private void setState(int index, TileState tileState) {
+        TileState old = stateOf(index);
+
+        if (old == TileState.FLAGGED)
+            flagCount--;
+        else if (old == TileState.HINTED)
+            hintCount--;
+
+        if (tileState == TileState.FLAGGED)
+            flagCount++;
+        else if (tileState == TileState.HINTED)
+            hintCount++;
+
+        if (old != TileState.UNCOVERED && tileState == TileState.UNCOVERED && !isMine(index))
+            coveredSafe--;
+        else if (old == TileState.UNCOVERED && tileState != TileState.UNCOVERED && !isMine(index))
+            coveredSafe++; // Only undo covers a tile again.
+
+        journal.record(index, old, tileState);
+        writeState(index, tileState);
+    }
+
+    /**
+     * Writes the state of a tile to the board and the open and hinted bitplanes.
+     */
+    private void writeState(int index, TileState tileState) {
+        board.set(index, (byte)((board.get(index) & ~STATE_MASK) | (tileState.ordinal() << STATE_SHIFT)));
+        markState(index, tileState);
+    }
+
+    /**
+     * Sets the open and hinted bits of a tile to match its state.
+     */
+    private void markState(int index, TileState tileState) {
+        open.set(index, tileState == TileState.UNCOVERED || tileState == TileState.DETONATED);
+        hinted.set(index, tileState == TileState.HINTED);
+    }
+
+    /**
+     * @return The covered, safe tiles from word * 64 to word * 64 + 63, one bit each.
+     */
+    private long coveredSafeBits(int word) { return ~(mines.word(word) | open.word(word)) & mines.valid(word); }
+
+    /**
+     * @return The mines from word * 64 to word * 64 + 63, one bit each, for saving. There are
+     * none before the first selection places them.
+     */
+    long mineBits(int word) { return mines.word(word); }
+
+    /**
+     * @return The tiles showing a number from word * 64 to word * 64 + 63, one bit each.
+     */
+    long clueBits(int word) { return open.word(word) & ~mines.word(word); }
+
+    /**
+     * @return The tiles showing a hint from word * 64 to word * 64 + 63, one bit each.
+     */
+    long hintBits(int word) { return hinted.word(word); }
+
+    /**
+     * Places a mine on a game being loaded without touching any counts; call recountMines once they are all placed.
+     */
+    void restoreMine(int index) {
+        placed = true;
+        board.set(index, (byte)(board.get(index) | MINE_BIT));
+        mines.set(index, true);
+    }
+
+    /**
+     * Sets a tile of a game being loaded, which must have been created without mines.
+     * Neighbour counts are kept in step but no counter or journal is touched.
+     */
+    void restoreTile(int index, boolean mine, TileState tileState) {
+        setMine(index, mine);
+        writeState(index, tileState);
+    }
+
+    /**
+     * @return A generator split off this game's.
+     */
+    RandomGenerator splitRng() { return rng.split(); }
+
+    /**
+     * Before the mines are placed this game's generator has drawn nothing, so a copy starts from
+     * the same seed and draws the same mines. After, a copy gets a stream of its own, picked by
+     * the seed and the move it was copied at. Nothing is drawn from this game, so a game can be
+     * copied by several threads at once.
+     * @return The seed of a copy's generator.
+     */
+    private long copyStart() {
+        return placed ? new SplittableRandom(start + moveCount).split().nextLong() : start;
+    }
+
+    /**
+     * @return A copy of every packed tile, indexed by row * cols + col, with no mines before the first selection.
+     */
+    byte[] tiles() {
+        byte[] tiles = new byte[board.length()];
+        board.read(0, tiles, tiles.length);
+        return tiles;
+    }
+
+    /**
+     * Replaces every tile of a game being loaded with packed tiles whose counts are already set,
+     * and rebuilds the bitplanes from them. No counter or journal is touched.
+     */
+    void restoreTiles(byte[] tiles) {
+        board.write(0, tiles, tiles.length);
+        placed = true;
+
+        for (int index = 0 ; index < tiles.length ; index++) {
+            mines.set(index, isMine(index));
+            markState(index, stateOf(index));
+        }
+    }
+
+    /**
+     * Sets the counters and history of a game being loaded, once its tiles are restored.
+     */
+    void restore(GameState state, int mineCount, long seed, boolean seeded, int moveCount, int revealedCount,
+            int flagCount, int hintCount, int coveredSafe, MoveJournal journal) {
+        this.state = state;
+        this.mineCount = mineCount;
+        this.seed = seed;
+        this.seeded = seeded;
+        this.moveCount = moveCount;
+        this.revealedCount = revealedCount;
+        this.flagCount = flagCount;
+        this.hintCount = hintCount;
+        this.coveredSafe = coveredSafe;
+        if (journal != null)
+            this.journal = journal;
+    }
+
+    /**
+     * @return The game's move journal, for saving.
+     */
+    MoveJournal journal() { return journal; }
+
+    /**
+     * Adds an observer. Observers are called in the order they were registered, on the thread
+     * making the move; wrap slow observers in an AsyncObserver so they do not hold up the game.
+     * @param obs The observer.
+     */
+    public void register(MinesweeperObserver obs) {
+        if (changes == null)
+            changes = new BoardChange(rows, cols);
+        observers.add(obs);
+    }
+
+    /**
+     * Removes an observer.
      * @param obs The observer.
      */
-    public void register(MinesweeperObserver obs) { observer = obs; }
+    public void unregister(MinesweeperObserver obs) { observers.remove(obs); }
+
+    /**
+     * Attaches metrics that every selection on this game records into, or detaches them.
+     * Copies of the game start without metrics.
+     * @param metrics The metrics to record into, or null to stop recording.
+     */
+    public void setMetrics(GameMetrics metrics) { this.metrics = metrics; }
 
     /**
-     * Notifies the obsever that a (Location : MSTile) has changed states.
+     * Adds a tile to the changes the observers will be sent at the end of the move.
      */
-    private void notifyObserver(Location loc) {
-        if (observer != null)
-            observer.tileUpdated(loc);
+    private void changed(int index) {
+        if (changes != null)
+            changes.add(index);
+    }
+
+    /**
+     * Marks the whole board as changed for the observers.
+     */
+    private void changedAll() {
+        if (changes != null)
+            changes.addAll();
+    }
+
+    /**
+     * Notifies the obsevers once per move: every (Location : MSTile) that changed states
+     * as one batch, then the game's state and counters. The batch is cleared even if an
+     * observer throws, so the next move does not send this one's tiles again.
+     * @return The number of tile updates sent, counting each observer separately.
+     */
+    private int notifyObserver() {
+        if (changes == null)
+            return 0;
+
+        int notified = 0;
+        try {
+            for (MinesweeperObserver observer : observers) {
+                if (!changes.isEmpty()) {
+                    observer.tilesUpdated(changes);
+                    notified += changes.size();
+                }
+                observer.gameUpdated(this);
+            }
+        } finally {
+            changes.clear();
+        }
+        return notified;
     }
 
     /**
@@ -125,6 +608,31 @@ public class Minesweeper implements Configuration{
      */
     public int getMoveCount() { return moveCount; }
 
+    /**
+     * @return The number of tiles uncovered by moves, including those opened by a cascade.
+     */
+    public int getRevealedCount() { return revealedCount; }
+
+    /**
+     * @return The number of safe tiles that are still covered.
+     */
+    public int getCoveredSafeCount() { return coveredSafe; }
+
+    /**
+     * @return The number of flags on the board.
+     */
+    public int getFlagCount() { return flagCount; }
+
+    /**
+     * @return The number of hints on the board that have not been uncovered yet.
+     */
+    public int getHintCount() { return hintCount; }
+
+    /**
+     * @return The number of mines minus the number of flags placed.
+     */
+    public int getMinesLeft() { return mineCount - flagCount; }
+
     /**
      * @return The current state of the game.
      */
@@ -135,6 +643,11 @@ public class Minesweeper implements Configuration{
      */
     public int getMineCount() { return mineCount; }
 
+    /**
+     * @return The seed the board was generated from, or empty if it was not seeded or has been reset.
+     */
+    public OptionalLong getSeed() { return seeded ? OptionalLong.of(seed) : OptionalLong.empty(); }
+
     /**
      * @return The number of rows on the board.
      */
@@ -150,65 +663,164 @@ public class Minesweeper implements Configuration{
      * @return True if the MSTile is covered, False otherwise.
      */
     public boolean isCovered(Location loc) throws MinesweeperException {
-        if (!board.containsKey(loc))
+        int index = indexOf(loc);
+        if (index < 0)
             throw new MinesweeperException("Invalid location!");
 
-        return board.get(loc).isCovered();
+        return stateOf(index) == TileState.COVERED;
     }
 
     /**
-     * Uncovers all tiles on the board.
+     * Uncovers all tiles on the board. Before the first selection this places the mines over
+     * the whole board, keeping no tile clear, since there is nothing to show until they are.
      */
     public void uncoverBoard() {
-        for (Location loc : board.keySet()) {
-            board.get(loc).uncover();
-            notifyObserver(loc);
-        }
+        uncoverAll();
+        notifyObserver();
+    }
+
+    /**
+     * Uncovers all tiles on the board as part of the current move, skipping open words whole.
+     */
+    private void uncoverAll() {
+        placeMines(-1);
+        for (int word = 0 ; word < open.words() ; word++)
+            for (long bits = ~open.word(word) & open.valid(word) ; bits != 0 ; bits &= bits - 1)
+                setState(word * Long.SIZE + Long.numberOfTrailingZeros(bits), TileState.UNCOVERED);
+        changedAll();
     }
 
     /**
-     * Resets the Minesweeper game and randomizes mines.
+     * Resets the Minesweeper game. The new mines are placed at the next first selection.
      */
     public void reset() {
         state = GameState.IN_PROGRESS;
         moveCount = 0;
+        seeded = false; // The new board comes from further along the generator.
+        start = rng.nextLong();
+        rng = new SplittableRandom(start);
+        journal.clear();
         makeBoard();
+        notifyObserver();
+    }
+
+    /**
+     * @return True if there is a move, flag or hint to undo, False otherwise.
+     */
+    public boolean canUndo() { return journal.canUndo(); }
+
+    /**
+     * @return True if there is an undone move to redo, False otherwise.
+     */
+    public boolean canRedo() { return journal.canRedo(); }
+
+    /**
+     * Reverts the last move, flag or hint, touching only the tiles it changed.
+     */
+    @Override
+    public void undo() {
+        if (!journal.canUndo())
+            return;
+
+        int move = journal.undo();
+        for (int entry = journal.end(move) - 1 ; entry >= journal.start(move) ; entry--) {
+            setState(journal.cell(entry), journal.before(entry));
+            changed(journal.cell(entry));
+        }
+
+        state = journal.gameState(move, false);
+        moveCount = journal.moveCount(move, false);
+        revealedCount = journal.revealedCount(move, false);
+        notifyObserver();
+    }
+
+    /**
+     * Reapplies the last undone move, flag or hint.
+     */
+    public void redo() {
+        if (!journal.canRedo())
+            return;
+
+        int move = journal.redo();
+        for (int entry = journal.start(move) ; entry < journal.end(move) ; entry++) {
+            setState(journal.cell(entry), journal.after(entry));
+            changed(journal.cell(entry));
+        }
+
+        state = journal.gameState(move, true);
+        moveCount = journal.moveCount(move, true);
+        revealedCount = journal.revealedCount(move, true);
+        notifyObserver();
     }
 
     /**
-     * Makes a random MSTile a hint and return its Location.
+     * Starts recording the tiles changed by a move.
+     */
+    private void beginMove() { journal.begin(state, moveCount, revealedCount); }
+
+    /**
+     * Stops recording the current move.
+     */
+    private void endMove() { journal.end(state, moveCount, revealedCount); }
+
+    /**
+     * Makes a random MSTile a hint and return its Location. A hint before the first selection
+     * stands in for it, placing the mines clear of the hinted tile and its neighbours.
      * @return The Location corresponding to a Hinted MSTile.
      */
     public Location giveHint() {
-        List<Location> locs = new ArrayList<>(getPossibleSelections());
-        Collections.shuffle(locs); // Randomize hints.
+        int candidates = coveredSafe - hintCount; // Hints are always covered and safe.
+        int hint = -1;
+
+        if (candidates <= 0)
+            return null; // No Location was available to hint.
+
+        if (!placed) { // Any tile the player has not flagged can be made safe before the first selection.
+            if (flagCount == board.length())
+                return null;
+            hint = rng.nextInt(board.length() - flagCount);
+            for (int index = 0 ; flagCount > 0 && index <= hint ; index++) // Step over the flags before it.
+                if (stateOf(index) == TileState.FLAGGED)
+                    hint++;
+            placeMines(hint);
+        }
 
-        // Find a covered, safe, and un-hinted location:
-        for (Location loc : locs) {
-            MSTile tile = board.get(loc);
+        // Walk to a random covered, safe, and un-hinted tile, counting a word of them at a time:
+        for (int word = 0, skip = (hint < 0) ? rng.nextInt(candidates) : 0 ; hint < 0 ; word++) {
+            long bits = coveredSafeBits(word) & ~hinted.word(word);
+            int count = Long.bitCount(bits);
 
-            if (!tile.isHinted()) {
-                tile.setHint(true); // Make MSTile a hint.
-                notifyObserver(loc);
-                return loc;
-            }
-        } return null; // No Location was available to hint.
+            if (skip < count)
+                hint = word * Long.SIZE + Bitplane.select(bits, skip);
+            skip -= count;
+        }
+
+        beginMove();
+        setState(hint, TileState.HINTED); // Make tile a hint.
+        changed(hint);
+        endMove();
+        notifyObserver();
+        return locationOf(hint);
     }
 
     /**
-     * @return A Collection of available move options.
+     * @return A Collection of available move options. Before the first selection no tile is
+     * known to be a mine, so every tile is an option and the mines are left unplaced.
      */
     public Collection<Location> getPossibleSelections() {
-        Collection<Location> selections = new LinkedList<>();
+        if (!placed) {
+            Collection<Location> selections = new ArrayList<>(board.length());
+            for (int index = 0 ; index < board.length() ; index++)
+                selections.add(locationOf(index));
+            return selections;
+        }
 
-        for (Location loc : board.keySet()) {
-            MSTile tile = board.get(loc);
+        Collection<Location> selections = new ArrayList<>(coveredSafe);
 
-            // Tile is covered and safe:
-            if (tile.getState() != TileState.UNCOVERED && !tile.isMine()) {
-                selections.add(loc);
-            }
-        }
+        // Every covered safe tile is counted, so stop as soon as they have all been found:
+        for (int word = 0 ; word < mines.words() && selections.size() < coveredSafe ; word++)
+            for (long bits = coveredSafeBits(word) ; bits != 0 ; bits &= bits - 1)
+                selections.add(locationOf(word * Long.SIZE + Long.numberOfTrailingZeros(bits)));
 
         return selections;
     }
@@ -218,13 +830,43 @@ public class Minesweeper implements Configuration{
      * @throws MinesweeperException On an invalid move.
      */
     public void flag(Location loc) throws MinesweeperException {
-        MSTile tile = board.get(loc);
+        MoveResult result = tryFlag(loc);
 
-        if (tile.getState() == TileState.UNCOVERED)
+        if (result == MoveResult.INVALID_LOCATION)
+            throw new MinesweeperException("Invalid location!");
+
+        if (result == MoveResult.HINTED)
+            throw new MinesweeperException("That location is a hint!");
+
+        if (result == MoveResult.UNCOVERED)
             throw new MinesweeperException("That location is already uncovered!");
+    }
+
+    /**
+     * Flags or unflags a tile without throwing on an invalid move.
+     * @param loc The location selected for a move.
+     * @return OK if the tile was flagged or unflagged, otherwise why the move was rejected.
+     */
+    public MoveResult tryFlag(Location loc) {
+        int index = indexOf(loc);
+
+        if (index < 0)
+            return MoveResult.INVALID_LOCATION;
+
+        TileState tileState = stateOf(index);
 
-        tile.toggleFlag();
-        notifyObserver(loc);
+        if (tileState == TileState.HINTED)
+            return MoveResult.HINTED;
+
+        if (tileState != TileState.COVERED && tileState != TileState.FLAGGED)
+            return MoveResult.UNCOVERED;
+
+        beginMove();
+        setState(index, (tileState == TileState.COVERED) ? TileState.FLAGGED : TileState.COVERED);
+        changed(index);
+        endMove();
+        notifyObserver();
+        return MoveResult.OK;
     }
 
     /**
@@ -232,67 +874,126 @@ public class Minesweeper implements Configuration{
      * @throws MinesweeperException On an invalid move.
      */
     public void makeSelection(Location loc) throws MinesweeperException {
-        MSTile tile;
+        if (tryMakeSelection(loc) != MoveResult.OK)
+            throw new MinesweeperException("Invalid move!");
+    }
 
-        if ((tile = board.get(loc)) != null && tile.getState() != TileState.UNCOVERED) {
-            if (tile.isFlagged()) { // Unflag location if flagged BUT don't uncover.
-                flag(loc);
-                return;
-            } 
-            
-            moveCount++;
+    /**
+     * Makes a selection without throwing on an invalid move, for solvers and bots that probe moves.
+     * @param loc The location selected for a move.
+     * @return OK if the move was made, otherwise why the move was rejected.
+     */
+    public MoveResult tryMakeSelection(Location loc) {
+        int index = indexOf(loc);
+        TileState tileState;
 
-            if (tile.isMine()) { // If our move was revealing a mine, we lost + detonation.
-                state = GameState.LOST;
-                tile.detonate();
+        if (index < 0)
+            return MoveResult.INVALID_LOCATION;
 
-            } else if (state != GameState.LOST && (moveCount >= (rows * cols) - mineCount)) // If our move has won the game.
-                state = GameState.WON;
+        if (state != GameState.IN_PROGRESS)
+            return MoveResult.GAME_OVER;
 
-            if (state != GameState.IN_PROGRESS) // Win or lose, uncover the board.
-                uncoverBoard();
+        if ((tileState = stateOf(index)) == TileState.UNCOVERED)
+            return MoveResult.UNCOVERED;
 
-        } else
-            throw new MinesweeperException("Invalid move!");
+        if (tileState == TileState.FLAGGED) // Unflag location if flagged BUT don't uncover.
+            return tryFlag(loc);
 
-        board.get(loc).uncover();
-        clearSurrounding(loc);
-        notifyObserver(loc);
+        long started = (metrics != null) ? System.nanoTime() : 0;
+        int revealed = 0;
+
+        placeMines(index); // Placing mines changes no visible tile, so observers only hear about the move.
+        beginMove();
+        moveCount++;
+
+        if (isMine(index)) { // If our move was revealing a mine, we lost + detonation.
+            state = GameState.LOST;
+            setState(index, TileState.DETONATED);
+        } else {
+            revealed = clearSurrounding(index);
+            revealedCount += revealed;
+
+            if (coveredSafe == 0) // If our move has won the game.
+                state = GameState.WON;
+        }
+
+        changed(index);
+        if (state != GameState.IN_PROGRESS) // Win or lose, uncover the board.
+            uncoverAll();
+
+        endMove();
+        int notified = notifyObserver();
+        if (metrics != null)
+            metrics.moveMade(System.nanoTime() - started, revealed, notified);
+        return MoveResult.OK;
     }
 
     /**
-     * Recursively uncovers all adjacent tiles if no mines surround the given location.
-     * @param loc The initial location (DOES NOT UNCOVER).
+     * Uncovers the tile at start and flood fills outwards through every connected tile with no
+     * adjacent mines. Runs breadth first over board indices so large blank regions open in one
+     * pass without recursion; flagged tiles are left alone.
+     * @param start The board index of the selected, safe tile.
+     * @return The number of tiles uncovered.
      */
-    private void clearSurrounding(Location loc) throws MinesweeperException {
-        if (getUncoveredState(loc) == TILE) {
-            for (int[] delta : DELTAS) {
-                Location d_loc = new Location(loc.getRow() + delta[0], loc.getCol() + delta[1]);
-                MSTile tile;
-
-                // If the location exists and hasn't been uncovered:
-                // Uncover, notify, and potentially uncover its surrounding tiles.
-                if ((tile = board.get(d_loc)) != null && tile.getState() != TileState.UNCOVERED) // TODO Figure out how to remove redundancy.
-                    makeSelection(d_loc);
+    private int clearSurrounding(int start) {
+        if (cascade == null)
+            cascade = new int[64];
+
+        int head = 0;
+        int size = 0;
+        int revealed = 1;
+
+        setState(start, TileState.UNCOVERED);
+        if (adjacentMines(start) == 0)
+            cascade[size++] = start;
+
+        while (size > 0) {
+            int index = cascade[head];
+            head = (head + 1) % cascade.length;
+            size--;
+
+            int row = index / cols;
+            int col = index % cols;
+
+            for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++) {
+                for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++) {
+                    int d_index = d_row * cols + d_col;
+                    TileState d_state = stateOf(d_index);
+
+                    // Neighbours of a blank tile are never mines, so only the state needs checking:
+                    if (d_state != TileState.COVERED && d_state != TileState.HINTED)
+                        continue;
+
+                    setState(d_index, TileState.UNCOVERED);
+                    revealed++;
+                    changed(d_index);
+
+                    if (adjacentMines(d_index) == 0) {
+                        if (size == cascade.length) { // Grow the ring buffer, unwrapping it in order.
+                            int[] grown = new int[cascade.length * 2];
+                            int tail = cascade.length - head;
+                            System.arraycopy(cascade, head, grown, 0, tail);
+                            System.arraycopy(cascade, 0, grown, tail, head);
+                            cascade = grown;
+                            head = 0;
+                        }
+                        cascade[(head + size++) % cascade.length] = d_index;
+                    }
+                }
             }
         }
+
+        return revealed;
     }
 
     @Override
     public String toString() {
-        String s = "";
+        StringBuilder s = new StringBuilder(rows * (cols * 2 + 1));
 
-        try {
-            for (int row = 0 ; row < rows ; row++) {
-                for (int col = 0 ; col < cols ; col++) {
-                    Location loc = new Location(row, col);
-                    s += getSymbol(loc) + " "; // Get symbol and add spacing
-                }
-                s += "\n";
-            }
-        } catch (MinesweeperException e) { /* squash */ }
+        try { new TextRenderer(this).render(s);
+        } catch (IOException e) { /* squash */ }
 
-        return s.substring(0, s.length()-1);
+        return s.toString();
     }
 
     /**
@@ -300,63 +1001,109 @@ public class Minesweeper implements Configuration{
      * @return The CLI symbol at the supplied Location.
      */
     public char getSymbol(Location loc) throws MinesweeperException {
-        if (!board.containsKey(loc))
+        int index = indexOf(loc);
+        if (index < 0)
             throw new MinesweeperException("Invalid location!");
 
-        MSTile tile = board.get(loc);
+        return symbolAt(index);
+    }
+
+    /**
+     * @return The CLI symbol of the tile at index, which must be valid.
+     */
+    char symbolAt(int index) { return symbolFor(board.get(index)); }
+
+    /**
+     * @return The CLI symbol of a packed tile value.
+     */
+    static char symbolFor(byte value) { return SYMBOLS[value & 0xFF]; }
+
+    /**
+     * Renderers drawing many tiles use this to skip building a Location per tile.
+     * @param row The row checked for a CLI symbol.
+     * @param col The column checked for a CLI symbol.
+     * @return The CLI symbol at the supplied row and column.
+     */
+    public char getSymbol(int row, int col) throws MinesweeperException {
+        if (!inBounds(row, col))
+            throw new MinesweeperException("Invalid location!");
+
+        return symbolAt(row * cols + col);
+    }
+
+    /**
+     * @param tileState The state of a tile.
+     * @param mine Whether or not the tile is a mine.
+     * @param mines The number of mines adjacent to the tile.
+     * @return The CLI symbol for a tile in that state.
+     */
+    private static char symbolOf(TileState tileState, boolean mine, int mines) {
         char c;
 
-        if (tile.isCovered())
+        if (tileState == TileState.COVERED)
             c = COVERED;
-        else if (tile.isFlagged())
+        else if (tileState == TileState.FLAGGED)
             c = FLAGGED;
-        else if (tile.isHinted())
+        else if (tileState == TileState.HINTED)
             c = HINTED;
-        else if (tile.getState() == TileState.DETONATED)
+        else if (tileState == TileState.DETONATED)
             c = DETONATED;
-        else if (tile.isMine()) // Uncovered and unexploded mine check.
+        else if (mine) // Uncovered and unexploded mine check.
             c = MINE;
         else // Uncovered and not flagged check.
-            c = getUncoveredState(loc);
+            c = getUncoveredState(mines);
 
         return c;
     }
 
     /**
-     * @param loc The location being checked for adjacent uncovered/mine tiles.
-     * @return A black space if the location is surrounded by uncovered tiles or the number of adjacent mines.
+     * @param mines The number of mines adjacent to an uncovered tile.
+     * @return A black space if the location is surrounded by safe tiles or the number of adjacent mines.
      */
-    private char getUncoveredState(Location loc) {
-        int row = loc.getRow();
-        int col = loc.getCol();
-        boolean isBlank = true;
-        int mines = 0;
-        
-        for (int[] delta : DELTAS) {
-            Location d_loc = new Location(row + delta[0], col + delta[1]);
-
-            if (board.containsKey(d_loc)) {
-                MSTile tile = board.get(d_loc);
-
-                if (tile.isMine()) {
-                    mines++;
-                    isBlank = false;
-                }
-            }
-        }
-
-        if (isBlank) // If the location is surrounded entirely by safe tiles.
+    private static char getUncoveredState(int mines) {
+        if (mines == 0) // If the location is surrounded entirely by safe tiles.
             return TILE;
         return (char)(mines + '0');
     }
 
+    /**
+     * Plays a copy of the game with MinesweeperSolver, which only sees the visible board.
+     * Proven safe tiles are picked first and the least likely mine is guessed when stuck.
+     * One solver follows the whole game, so each step only re-analyses around the tiles it opened.
+     * @return The selections that win the game, or the selections made before a guess hit a mine.
+     */
     public List<Location> solve() {
-        Backtracker backtracker = new Backtracker(false);
-        Minesweeper solution = (Minesweeper)backtracker.solve(this);
+        Minesweeper copy = new Minesweeper(this);
+        List<Location> selections = new ArrayList<>();
+        MinesweeperSolver solver = new MinesweeperSolver(copy);
+
+        while (copy.state == GameState.IN_PROGRESS) {
+            boolean moved = false;
 
-        if (solution!=null && solution.solveSelections != null)
-            return solution.solveSelections;
-        return null;
+            for (int index = solver.nextSafe() ; index >= 0 && copy.state == GameState.IN_PROGRESS ; index = solver.nextSafe()) {
+                Location loc = locationOf(index);
+
+                if (copy.stateOf(index) == TileState.FLAGGED) // A misplaced flag, which a selection would only remove.
+                    copy.tryFlag(loc);
+                copy.tryMakeSelection(loc);
+                selections.add(loc);
+                moved = true;
+            }
+
+            if (!moved) {
+                Location guess = solver.getBestGuess();
+                if (guess == null)
+                    break;
+
+                if (copy.tryMakeSelection(guess) != MoveResult.OK || copy.state == GameState.LOST)
+                    break;
+                selections.add(guess);
+            }
+
+            solver.update();
+        }
+
+        return selections;
     }
 
     @Override
@@ -364,16 +1111,28 @@ public class Minesweeper implements Configuration{
         Collection<Configuration> successors = new ArrayList<>();
         for (Location loc : getPossibleSelections()) {
             Minesweeper newMS = new Minesweeper(this);
-            try {
-                newMS.makeSelection(loc);
+            if (newMS.tryMakeSelection(loc) == MoveResult.OK) {
                 newMS.solveSelections.add(loc);
 
                 successors.add(newMS);
-            } catch (MinesweeperException e) {/* squash */}
+            }
         }
         return successors;
     }
 
+    @Override
+    public Collection<Location> getMoves() {
+        return getPossibleSelections();
+    }
+
+    @Override
+    public void apply(Location loc) {
+        if (tryMakeSelection(loc) != MoveResult.OK) { // Keep undo paired with apply.
+            beginMove();
+            endMove();
+        }
+    }
+
     @Override
     public boolean isValid() {
         return state != GameState.LOST;
@@ -1,7 +1,13 @@
 package model;
 
+/**
+ * Thrown for invalid moves and boards. The exception records no stack trace, since it reports
+ * a rule of the game rather than a bug, and leaves printing the message to whoever catches it.
+ */
 public class MinesweeperException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     public MinesweeperException(String message) {
-        System.err.println(message);
+        super(message, null, false, false);
     }
 }
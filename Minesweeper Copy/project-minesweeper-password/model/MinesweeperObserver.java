@@ -10,4 +10,22 @@ public interface MinesweeperObserver {
      * @param loc The Location which changed.
      */
     void tileUpdated(Location loc);
+
+    /**
+     * Called once per move with every tile the move changed.
+     * By default each tile is passed on to tileUpdated.
+     * 
+     * @param changes The tiles which changed, only valid during the call.
+     */
+    default void tilesUpdated(BoardChange changes) {
+        for (int i = 0 ; i < changes.size() ; i++)
+            tileUpdated(changes.getLocation(i));
+    }
+
+    /**
+     * Called once per move, after tilesUpdated, when the game's state or counters may have changed.
+     * 
+     * @param game The observed game.
+     */
+    default void gameUpdated(Minesweeper game) {}
 }
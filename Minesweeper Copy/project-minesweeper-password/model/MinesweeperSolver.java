@@ -0,0 +1,654 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Logic solver for a Minesweeper board. It only reads what the player can see: the numbers
+ * on uncovered tiles and any hints. Flags are ignored because the player may have misplaced them.
+ *
+ * The board is analysed when the solver is created. Single-tile rules run first, then the
+ * subset rule between overlapping numbers. Whatever is left of the frontier is split into
+ * independent components, and each one is enumerated to find certain tiles and mine probabilities.
+ * As the game goes on, update brings the analysis up to date from the numbers uncovered since,
+ * keeping everything already proven instead of starting over.
+ */
+public class MinesweeperSolver {
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+
+    private static final int MAX_COMPONENT = 64; // Larger components are left at the mine density.
+    private static final long MAX_NODES = 1L << 20; // Enumeration budget per component.
+
+    private final Minesweeper game;
+    private final int rows;
+    private final int cols;
+
+    private byte[] known; // What the solver has proven about each tile.
+    private boolean[] queued; // Numbers waiting to be re-checked.
+    private int[] queue;
+    private int queueSize;
+    private int knownMines;
+    private int unknownCount; // Tiles neither proven safe nor proven a mine.
+    private byte[] unknownNear; // The number of unknown neighbours of each tile.
+
+    private long[] read; // Numbers already read off the board, a bit per tile.
+    private int[] proven; // Tiles proven safe that have not been handed out by nextSafe yet.
+    private int provenCount;
+
+    private int[] changed; // Numbers whose unknown neighbours or mines changed since the subset rule saw them.
+    private int changedCount;
+    private boolean[] isChanged;
+    private boolean[] stale; // Frontier tiles whose component changed since it was last enumerated.
+    private float[] chance; // The probability each frontier tile got when its component was last enumerated.
+
+    private int[] constraints; // Uncovered numbers next to at least one unknown tile.
+    private int constraintCount;
+
+    private int[] slot; // Local id of a frontier tile, -1 otherwise.
+    private int[] frontier;
+    private int frontierCount;
+    private float[] frontierProbability;
+    private float interiorProbability;
+
+    private final int[] around = new int[8];
+    private final int[] aroundInner = new int[8];
+    private final int[] aroundOther = new int[8];
+    private final int[] aroundPushed = new int[8];
+
+    /**
+     * Analyses the visible state of a game.
+     * @param game The game to solve.
+     */
+    public MinesweeperSolver(Minesweeper game) {
+        this.game = game;
+        this.rows = game.getRows();
+        this.cols = game.getCols();
+
+        int tiles = rows * cols;
+        known = new byte[tiles];
+        queued = new boolean[tiles];
+        queue = new int[64];
+        constraints = new int[64];
+        slot = new int[tiles];
+        Arrays.fill(slot, -1);
+        read = new long[Bitplane.words(tiles)];
+        proven = new int[64];
+        changed = new int[64];
+        isChanged = new boolean[tiles];
+        stale = new boolean[tiles];
+        chance = new float[tiles];
+        unknownCount = tiles;
+        unknownNear = new byte[tiles];
+        for (int index = 0 ; index < tiles ; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            unknownNear[index] = (byte) ((Math.min(row + 1, rows - 1) - Math.max(row - 1, 0) + 1)
+                    * (Math.min(col + 1, cols - 1) - Math.max(col - 1, 0) + 1) - 1);
+        }
+
+        update();
+    }
+
+    /**
+     * Brings the analysis up to date with the game, which may only have moved on by uncovering
+     * tiles and adding hints since. Numbers and hints not read yet are found a word of the game's
+     * bitplanes at a time, and only the frontier they touch is looked at again.
+     */
+    void update() {
+        for (int word = 0 ; word < read.length ; word++)
+            for (long bits = game.hintBits(word) ; bits != 0 ; bits &= bits - 1)
+                mark(word * Long.SIZE + Long.numberOfTrailingZeros(bits), SAFE);
+
+        for (int word = 0 ; word < read.length ; word++) {
+            long bits = game.clueBits(word) & ~read[word];
+            read[word] |= bits;
+
+            for ( ; bits != 0 ; bits &= bits - 1) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+
+                mark(index, SAFE);
+                if (unknownNear[index] > 0) {
+                    constraints = grow(constraints, constraintCount);
+                    constraints[constraintCount++] = index;
+                    push(index);
+                }
+            }
+        }
+
+        do {
+            do {
+                propagate();
+            } while (applySubsetRule());
+        } while (enumerateFrontier());
+    }
+
+    /**
+     * Hands out the tiles proven safe since the last call one at a time, newest first,
+     * so a caller playing them does not scan the board for them.
+     * @return The board index of a covered tile proven safe, or -1 if there is none left.
+     */
+    int nextSafe() {
+        while (provenCount > 0) {
+            int index = proven[--provenCount];
+            if (game.clueAt(index) < 0)
+                return index;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The covered tiles that are proven to be safe.
+     */
+    public Collection<Location> getSafeSelections() {
+        Collection<Location> selections = new ArrayList<>();
+
+        for (int index = 0 ; index < known.length ; index++)
+            if (known[index] == SAFE && game.clueAt(index) < 0)
+                selections.add(new Location(index / cols, index % cols));
+
+        return selections;
+    }
+
+    /**
+     * @return The covered tiles that are proven to be mines.
+     */
+    public Collection<Location> getMines() {
+        Collection<Location> mines = new ArrayList<>();
+
+        for (int index = 0 ; index < known.length ; index++)
+            if (known[index] == MINE)
+                mines.add(new Location(index / cols, index % cols));
+
+        return mines;
+    }
+
+    /**
+     * @param loc A Location on the board.
+     * @return The probability that the tile is a mine, given only what the player can see.
+     * @throws MinesweeperException If the Location is not on the board.
+     */
+    public double getMineProbability(Location loc) throws MinesweeperException {
+        if (loc == null || loc.getRow() < 0 || loc.getRow() >= rows || loc.getCol() < 0 || loc.getCol() >= cols)
+            throw new MinesweeperException("Invalid location!");
+
+        return probabilityOf(loc.getRow() * cols + loc.getCol());
+    }
+
+    /**
+     * @return The covered tile least likely to be a mine, or null if nothing is left to pick.
+     */
+    public Location getBestGuess() {
+        int best = -1;
+        double bestProbability = 2;
+
+        for (int index = 0 ; index < known.length ; index++) {
+            if (known[index] == MINE || game.clueAt(index) >= 0)
+                continue;
+
+            double probability = probabilityOf(index);
+            if (probability < bestProbability) {
+                best = index;
+                bestProbability = probability;
+            }
+        }
+
+        return (best < 0) ? null : new Location(best / cols, best % cols);
+    }
+
+    private double probabilityOf(int index) {
+        if (known[index] != UNKNOWN)
+            return (known[index] == MINE) ? 1 : 0;
+        if (slot[index] >= 0)
+            return frontierProbability[slot[index]];
+        return interiorProbability;
+    }
+
+    /**
+     * Applies the single-tile rules until no queued number changes anything: a number with all of
+     * its mines found makes its other neighbours safe, and a number with exactly as many unknown
+     * neighbours as missing mines makes them all mines.
+     */
+    private void propagate() {
+        while (queueSize > 0) {
+            int index = queue[--queueSize];
+            queued[index] = false;
+
+            int unknown = unknownAround(index, around);
+            if (unknown == 0)
+                continue;
+
+            int remaining = game.clueAt(index) - minesAround(index);
+            if (remaining == 0 || remaining == unknown)
+                for (int i = 0 ; i < unknown ; i++)
+                    mark(around[i], (remaining == 0) ? SAFE : MINE);
+        }
+    }
+
+    /**
+     * Compares each number that changed since the last pass with the numbers in its 5x5 window.
+     * When the unknown neighbours of one are a subset of the other's, the tiles only the larger one
+     * sees hold the difference in mines. Pairs where neither number changed were already compared.
+     * @return True if any tile was proven, False otherwise.
+     */
+    private boolean applySubsetRule() {
+        boolean proved = false;
+        int count = changedCount; // Numbers changed by this pass are left for the next one.
+
+        for (int i = 0 ; i < count ; i++) {
+            int a = changed[i];
+            isChanged[a] = false;
+            if (unknownNear[a] == 0)
+                continue; // Nothing is left to prove around it, and it is no other number's subset.
+
+            int row = a / cols;
+            int col = a % cols;
+
+            for (int b_row = Math.max(row - 2, 0) ; b_row <= Math.min(row + 2, rows - 1) ; b_row++) {
+                for (int b_col = Math.max(col - 2, 0) ; b_col <= Math.min(col + 2, cols - 1) ; b_col++) {
+                    int b = b_row * cols + b_col;
+                    if (b == a || unknownNear[b] == unknownNear[a] || unknownNear[b] == 0 || game.clueAt(b) < 0)
+                        continue; // A proper subset has fewer unknown tiles than its superset.
+                    proved |= (unknownNear[a] < unknownNear[b]) ? applySubsetRule(a, b) : applySubsetRule(b, a);
+                }
+            }
+        }
+
+        System.arraycopy(changed, count, changed, 0, changedCount - count);
+        changedCount -= count;
+        return proved;
+    }
+
+    /**
+     * Applies the subset rule to one ordered pair of numbers.
+     * @return True if any tile was proven, False otherwise.
+     */
+    private boolean applySubsetRule(int a, int b) {
+        int aUnknown = unknownAround(a, around);
+        if (aUnknown == 0)
+            return false;
+
+        int bUnknown = unknownAround(b, aroundOther);
+        if (bUnknown <= aUnknown || !allAdjacent(around, aUnknown, b))
+            return false;
+
+        // The tiles only b sees hold exactly the mines b has left over a:
+        int difference = game.clueAt(b) - minesAround(b) - (game.clueAt(a) - minesAround(a));
+        int only = bUnknown - aUnknown;
+
+        if (difference != 0 && difference != only)
+            return false;
+
+        for (int j = 0 ; j < bUnknown ; j++)
+            if (!adjacent(aroundOther[j], a))
+                mark(aroundOther[j], (difference == 0) ? SAFE : MINE);
+        return true;
+    }
+
+    /**
+     * Splits the unknown tiles next to numbers into independent components and enumerates every
+     * consistent mine layout of each. Layouts are weighted by the odds of their mine count under
+     * the density of the mines still unaccounted for, which approximates the global mine count.
+     * Components with no stale tile are the same as when they were last enumerated, so they keep
+     * the probabilities they got then, and nothing in them can be proven now that could not then.
+     * @return True if any tile was proven, False otherwise.
+     */
+    private boolean enumerateFrontier() {
+        for (int i = 0 ; i < frontierCount ; i++)
+            slot[frontier[i]] = -1;
+        frontierCount = 0;
+        if (frontier == null)
+            frontier = new int[64];
+
+        // Give each unknown frontier tile a local id and join tiles that share a number:
+        int active = 0;
+        for (int i = 0 ; i < constraintCount ; i++) {
+            int c = constraints[i];
+            int unknown = unknownAround(c, around);
+            if (unknown == 0)
+                continue;
+
+            constraints[active++] = c;
+            for (int j = 0 ; j < unknown ; j++) {
+                if (slot[around[j]] < 0) {
+                    frontier = grow(frontier, frontierCount);
+                    slot[around[j]] = frontierCount;
+                    frontier[frontierCount++] = around[j];
+                }
+            }
+        }
+        constraintCount = active;
+
+        int[] parent = new int[frontierCount];
+        for (int i = 0 ; i < frontierCount ; i++)
+            parent[i] = i;
+        for (int i = 0 ; i < constraintCount ; i++) {
+            int unknown = unknownAround(constraints[i], around);
+            for (int j = 1 ; j < unknown ; j++)
+                parent[find(parent, slot[around[j]])] = find(parent, slot[around[0]]);
+        }
+
+        int unknownTiles = unknownCount;
+        int minesLeft = game.getMineCount() - knownMines;
+        double density = (unknownTiles == 0) ? 0 : Math.min(1, Math.max(0, (double)minesLeft / unknownTiles));
+        frontierProbability = new float[frontierCount];
+        Arrays.fill(frontierProbability, (float)density);
+
+        // Group frontier tiles by component, keeping board order inside each:
+        int[] order = new int[frontierCount];
+        int[] start = new int[frontierCount + 1];
+        for (int i = 0 ; i < frontierCount ; i++)
+            start[find(parent, i) + 1]++;
+        for (int i = 0 ; i < frontierCount ; i++)
+            start[i + 1] += start[i];
+        int[] fill = Arrays.copyOf(start, frontierCount);
+        for (int i = 0 ; i < frontierCount ; i++)
+            order[fill[find(parent, i)]++] = i;
+
+        boolean changed = false;
+        double expected = 0;
+
+        for (int root = 0 ; root < frontierCount ; root++) {
+            int size = start[root + 1] - start[root];
+            if (size == 0)
+                continue;
+
+            if (size <= MAX_COMPONENT) {
+                if (isStale(order, start[root], size))
+                    changed |= enumerate(order, start[root], size, density);
+                else
+                    for (int i = start[root] ; i < start[root + 1] ; i++)
+                        frontierProbability[order[i]] = chance[frontier[order[i]]];
+            }
+
+            for (int i = start[root] ; i < start[root + 1] ; i++)
+                expected += frontierProbability[order[i]];
+        }
+
+        for (int i = 0 ; i < frontierCount ; i++)
+            stale[frontier[i]] = false;
+
+        int interior = unknownTiles - frontierCount;
+        interiorProbability = (interior == 0) ? 0
+            : (float)Math.min(1, Math.max(0, (minesLeft - expected) / interior));
+
+        return changed;
+    }
+
+    /**
+     * Enumerates the mine layouts of one frontier component.
+     * @return True if any tile was proven, False otherwise.
+     */
+    private boolean enumerate(int[] order, int from, int size, double density) {
+        int[] cells = new int[size];
+        for (int i = 0 ; i < size ; i++) {
+            cells[i] = frontier[order[from + i]];
+            chance[cells[i]] = (float)density; // Kept if the component cannot be enumerated.
+        }
+
+        // Collect the numbers touching this component and the cells each one covers:
+        int[] cons = new int[size * 8];
+        int consCount = 0;
+        int[][] cellCons = new int[size][];
+        int[] local = new int[size];
+
+        for (int i = 0 ; i < size ; i++)
+            local[i] = slot[cells[i]];
+        for (int i = 0 ; i < size ; i++)
+            slot[cells[i]] = i; // Temporarily index cells within the component.
+
+        int[] need = new int[size * 8];
+        int[] left = new int[size * 8];
+        for (int i = 0 ; i < size ; i++) {
+            int count = numbersAround(cells[i], aroundInner);
+            cellCons[i] = new int[count];
+
+            for (int j = 0 ; j < count ; j++) {
+                int c = aroundInner[j];
+                int id = -1;
+                for (int k = 0 ; k < consCount && id < 0 ; k++)
+                    if (cons[k] == c)
+                        id = k;
+
+                if (id < 0) {
+                    id = consCount++;
+                    cons[id] = c;
+                    need[id] = game.clueAt(c) - minesAround(c);
+                    left[id] = unknownAround(c, around);
+                }
+                cellCons[i][j] = id;
+            }
+        }
+
+        long[] solutions = new long[size + 1]; // Layouts by number of mines.
+        long[][] mineIn = new long[size][size + 1]; // Layouts with a mine in each cell, by number of mines.
+        boolean[] assigned = new boolean[size];
+        long nodes = search(0, 0, size, cellCons, need, left, assigned, solutions, mineIn, new long[] {0});
+
+        for (int i = 0 ; i < size ; i++)
+            slot[cells[i]] = local[i];
+
+        if (nodes < 0)
+            return false; // Over budget, leave the component at the mine density.
+
+        // Weight layouts by (density / (1 - density)) ^ mines, scaled to avoid overflow:
+        double logOdds = Math.log(density) - Math.log1p(-density);
+        double best = Double.NEGATIVE_INFINITY;
+        for (int m = 0 ; m <= size ; m++)
+            if (solutions[m] > 0)
+                best = Math.max(best, m * logOdds);
+
+        double[] weight = new double[size + 1];
+        double total = 0;
+        long count = 0;
+        for (int m = 0 ; m <= size ; m++) {
+            if (solutions[m] > 0) {
+                weight[m] = (density <= 0 || density >= 1) ? 1 : Math.exp(m * logOdds - best);
+                total += weight[m] * solutions[m];
+                count += solutions[m];
+            }
+        }
+        if (count == 0)
+            return false; // The visible board is inconsistent.
+
+        boolean changed = false;
+        for (int i = 0 ; i < size ; i++) {
+            double mine = 0;
+            long mineCount = 0;
+            for (int m = 0 ; m <= size ; m++) {
+                mine += weight[m] * mineIn[i][m];
+                mineCount += mineIn[i][m];
+            }
+
+            frontierProbability[local[i]] = (float)(mine / total);
+            chance[cells[i]] = frontierProbability[local[i]];
+            if (mineCount == 0 || mineCount == count) {
+                mark(cells[i], (mineCount == 0) ? SAFE : MINE);
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Depth first search over the cells of a component, pruning as soon as a number cannot be met.
+     * @return The number of nodes visited, or -1 if the budget ran out.
+     */
+    private long search(int cell, int mines, int size, int[][] cellCons, int[] need, int[] left,
+                        boolean[] assigned, long[] solutions, long[][] mineIn, long[] nodes) {
+        if (++nodes[0] > MAX_NODES)
+            return -1;
+
+        if (cell == size) {
+            solutions[mines]++;
+            for (int i = 0 ; i < size ; i++)
+                if (assigned[i])
+                    mineIn[i][mines]++;
+            return nodes[0];
+        }
+
+        for (int mine = 0 ; mine <= 1 ; mine++) {
+            boolean consistent = true;
+            for (int id : cellCons[cell]) {
+                left[id]--;
+                need[id] -= mine;
+                consistent &= need[id] >= 0 && need[id] <= left[id];
+            }
+
+            assigned[cell] = mine == 1;
+            long result = consistent
+                ? search(cell + 1, mines + mine, size, cellCons, need, left, assigned, solutions, mineIn, nodes) : 0;
+
+            for (int id : cellCons[cell]) {
+                left[id]++;
+                need[id] += mine;
+            }
+
+            if (result < 0)
+                return -1;
+        }
+
+        assigned[cell] = false;
+        return nodes[0];
+    }
+
+    /**
+     * Records a proven tile and queues the numbers around it for another look.
+     */
+    private void mark(int index, byte value) {
+        if (known[index] != UNKNOWN)
+            return;
+
+        known[index] = value;
+        unknownCount--;
+        if (value == MINE) {
+            knownMines++;
+        } else {
+            proven = grow(proven, provenCount);
+            proven[provenCount++] = index;
+        }
+
+        int row = index / cols;
+        int col = index % cols;
+
+        for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+            for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++) {
+                int d_index = d_row * cols + d_col;
+                if (d_index != index) {
+                    unknownNear[d_index]--;
+                    if (game.clueAt(d_index) >= 0)
+                        push(d_index);
+                }
+            }
+    }
+
+    /**
+     * Queues a number for the single-tile rules, the subset rule and, through its unknown
+     * neighbours, the enumeration of its component.
+     */
+    private void push(int index) {
+        if (!queued[index]) {
+            queue = grow(queue, queueSize);
+            queue[queueSize++] = index;
+            queued[index] = true;
+        }
+
+        if (!isChanged[index]) {
+            changed = grow(changed, changedCount);
+            changed[changedCount++] = index;
+            isChanged[index] = true;
+        }
+
+        if (unknownNear[index] > 0)
+            for (int i = unknownAround(index, aroundPushed) - 1 ; i >= 0 ; i--)
+                stale[aroundPushed[i]] = true;
+    }
+
+    /**
+     * @return True if any tile of the component was marked stale.
+     */
+    private boolean isStale(int[] order, int from, int size) {
+        for (int i = from ; i < from + size ; i++)
+            if (stale[frontier[order[i]]])
+                return true;
+        return false;
+    }
+
+    /**
+     * Fills out with the unknown neighbours of a tile.
+     * @return The number of unknown neighbours.
+     */
+    private int unknownAround(int index, int[] out) {
+        int count = 0;
+        int row = index / cols;
+        int col = index % cols;
+
+        for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+            for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++) {
+                int d_index = d_row * cols + d_col;
+                if (d_index != index && known[d_index] == UNKNOWN)
+                    out[count++] = d_index;
+            }
+
+        return count;
+    }
+
+    /**
+     * Fills out with the uncovered, numbered neighbours of a tile.
+     * @return The number of numbered neighbours.
+     */
+    private int numbersAround(int index, int[] out) {
+        int count = 0;
+        int row = index / cols;
+        int col = index % cols;
+
+        for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+            for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++) {
+                int d_index = d_row * cols + d_col;
+                if (d_index != index && game.clueAt(d_index) >= 0)
+                    out[count++] = d_index;
+            }
+
+        return count;
+    }
+
+    /**
+     * @return The number of proven mines around a tile.
+     */
+    private int minesAround(int index) {
+        int count = 0;
+        int row = index / cols;
+        int col = index % cols;
+
+        for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+            for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++)
+                if (known[d_row * cols + d_col] == MINE)
+                    count++;
+
+        return count;
+    }
+
+    private boolean adjacent(int a, int b) {
+        return a != b && Math.abs(a / cols - b / cols) <= 1 && Math.abs(a % cols - b % cols) <= 1;
+    }
+
+    private boolean allAdjacent(int[] cells, int count, int index) {
+        for (int i = 0 ; i < count ; i++)
+            if (!adjacent(cells[i], index))
+                return false;
+        return true;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i)
+            i = parent[i] = parent[parent[i]];
+        return i;
+    }
+
+    private static int[] grow(int[] array, int size) {
+        return (size < array.length) ? array : Arrays.copyOf(array, array.length * 2);
+    }
+}
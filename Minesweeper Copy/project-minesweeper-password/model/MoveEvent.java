@@ -0,0 +1,26 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed for each selection while a game has metrics attached.
+ */
+@Name("minesweeper.Move")
+@Label("Move")
+@Category("Minesweeper")
+@Description("A selection made on a Minesweeper board")
+class MoveEvent extends jdk.jfr.Event {
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Tiles Revealed")
+    int cascade;
+
+    @Label("Tile Notifications")
+    int notifications;
+}
@@ -0,0 +1,208 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Append-only record of the tiles each move changed, used to undo and redo moves in place.
+ * Each entry is a tile index with its state before and after the change, and each move is the
+ * run of entries it added along with the game's state, move count and revealed count around it.
+ * Moves that have been undone are kept for redo until a new move is recorded.
+ */
+class MoveJournal {
+    private static final int STATE = 0;
+    private static final int MOVES = 1;
+    private static final int REVEALED = 2;
+    private static final int HEADER = 6; // The three fields before the move, then after it.
+    private static final GameState[] GAME_STATES = GameState.values();
+    private static final TileState[] STATES = TileState.values();
+
+    private int[] cells = new int[16];
+    private byte[] changes = new byte[16]; // State ordinal before << 4 | state ordinal after.
+    private int entries;
+
+    private int[] starts = new int[8]; // First entry of each move, plus one past the last.
+    private int[] headers = new int[8 * HEADER];
+    private int recorded; // Moves recorded, including undone ones kept for redo.
+    private int applied; // Moves currently applied.
+    private boolean open;
+
+    /**
+     * Starts recording a move, dropping any moves that could have been redone.
+     */
+    void begin(GameState state, int moveCount, int revealedCount) {
+        recorded = applied;
+        entries = starts[applied];
+
+        if (applied + 2 > starts.length)
+            starts = Arrays.copyOf(starts, starts.length * 2);
+        if ((applied + 1) * HEADER > headers.length)
+            headers = Arrays.copyOf(headers, headers.length * 2);
+
+        setHeader(applied, 0, state, moveCount, revealedCount);
+        open = true;
+    }
+
+    /**
+     * Records a tile change if a move is being recorded.
+     */
+    void record(int index, TileState before, TileState after) {
+        if (!open)
+            return;
+
+        if (entries == cells.length) {
+            cells = Arrays.copyOf(cells, entries * 2);
+            changes = Arrays.copyOf(changes, entries * 2);
+        }
+
+        cells[entries] = index;
+        changes[entries++] = (byte)(before.ordinal() << 4 | after.ordinal());
+    }
+
+    /**
+     * Finishes recording the current move.
+     */
+    void end(GameState state, int moveCount, int revealedCount) {
+        setHeader(applied, HEADER / 2, state, moveCount, revealedCount);
+        starts[++applied] = entries;
+        recorded = applied;
+        open = false;
+    }
+
+    /**
+     * Forgets every move.
+     */
+    void clear() {
+        entries = 0;
+        recorded = 0;
+        applied = 0;
+        open = false;
+    }
+
+    boolean canUndo() { return applied > 0; }
+
+    boolean canRedo() { return applied < recorded; }
+
+    /**
+     * Steps back over the last applied move.
+     * @return The move to revert.
+     */
+    int undo() { return --applied; }
+
+    /**
+     * Steps forward over the next undone move.
+     * @return The move to reapply.
+     */
+    int redo() { return applied++; }
+
+    /**
+     * @return The first entry of a move.
+     */
+    int start(int move) { return starts[move]; }
+
+    /**
+     * @return One past the last entry of a move.
+     */
+    int end(int move) { return starts[move + 1]; }
+
+    int cell(int entry) { return cells[entry]; }
+
+    TileState before(int entry) { return STATES[changes[entry] >>> 4]; }
+
+    TileState after(int entry) { return STATES[changes[entry] & 0x0F]; }
+
+    /**
+     * @param after Whether to read the header after the move or before it.
+     */
+    GameState gameState(int move, boolean after) { return GAME_STATES[header(move, after, STATE)]; }
+
+    int moveCount(int move, boolean after) { return header(move, after, MOVES); }
+
+    int revealedCount(int move, boolean after) { return header(move, after, REVEALED); }
+
+    private int header(int move, boolean after, int field) {
+        return headers[move * HEADER + (after ? HEADER / 2 : 0) + field];
+    }
+
+    private void setHeader(int move, int offset, GameState state, int moveCount, int revealedCount) {
+        headers[move * HEADER + offset + STATE] = state.ordinal();
+        headers[move * HEADER + offset + MOVES] = moveCount;
+        headers[move * HEADER + offset + REVEALED] = revealedCount;
+    }
+
+    /**
+     * @return The number of bytes write will use.
+     */
+    int byteSize() {
+        return 3 * Integer.BYTES + entries * (Integer.BYTES + 1) + (recorded + 1 + recorded * HEADER) * Integer.BYTES;
+    }
+
+    /**
+     * Writes every recorded move, including undone ones, at the buffer's position.
+     */
+    void write(ByteBuffer buffer) {
+        buffer.putInt(entries).putInt(recorded).putInt(applied);
+        buffer.asIntBuffer().put(cells, 0, entries);
+        buffer.position(buffer.position() + entries * Integer.BYTES);
+        buffer.put(changes, 0, entries);
+        buffer.asIntBuffer().put(starts, 0, recorded + 1).put(headers, 0, recorded * HEADER);
+        buffer.position(buffer.position() + (recorded + 1 + recorded * HEADER) * Integer.BYTES);
+    }
+
+    /**
+     * Reads a journal written by write from the buffer's position.
+     * @param tiles The number of tiles on the board the journal was saved with.
+     * @throws IOException If the journal does not fit the buffer or the board.
+     */
+    static MoveJournal read(ByteBuffer buffer, int tiles) throws IOException {
+        if (buffer.remaining() < 3 * Integer.BYTES)
+            throw new IOException("Move journal is truncated.");
+
+        MoveJournal journal = new MoveJournal();
+        journal.entries = buffer.getInt();
+        journal.recorded = buffer.getInt();
+        journal.applied = buffer.getInt();
+
+        if (journal.entries < 0 || journal.recorded < 0 || journal.applied < 0 || journal.applied > journal.recorded)
+            throw new IOException("Move journal has invalid lengths.");
+        if (buffer.remaining() < (long)journal.entries * (Integer.BYTES + 1)
+                + ((long)journal.recorded * (HEADER + 1) + 1) * Integer.BYTES)
+            throw new IOException("Move journal is truncated.");
+
+        journal.cells = new int[Math.max(journal.entries, 16)];
+        journal.changes = new byte[journal.cells.length];
+        journal.starts = new int[journal.recorded + 2];
+        journal.headers = new int[(journal.recorded + 1) * HEADER];
+
+        buffer.asIntBuffer().get(journal.cells, 0, journal.entries);
+        buffer.position(buffer.position() + journal.entries * Integer.BYTES);
+        buffer.get(journal.changes, 0, journal.entries);
+        buffer.asIntBuffer().get(journal.starts, 0, journal.recorded + 1).get(journal.headers, 0, journal.recorded * HEADER);
+        buffer.position(buffer.position() + (journal.recorded + 1 + journal.recorded * HEADER) * Integer.BYTES);
+        journal.check(tiles);
+        return journal;
+    }
+
+    /**
+     * Checks that every entry and move read can be undone and redone on a board of the given size.
+     */
+    private void check(int tiles) throws IOException {
+        for (int entry = 0 ; entry < entries ; entry++)
+            if (cells[entry] < 0 || cells[entry] >= tiles
+                    || (changes[entry] & 0xFF) >>> 4 >= STATES.length || (changes[entry] & 0x0F) >= STATES.length)
+                throw new IOException("Move journal has an invalid entry.");
+
+        if (starts[0] != 0 || starts[recorded] != entries)
+            throw new IOException("Move journal has invalid moves.");
+        for (int move = 0 ; move < recorded ; move++) {
+            if (starts[move] > starts[move + 1])
+                throw new IOException("Move journal has invalid moves.");
+            for (int half = 0 ; half < HEADER ; half += HEADER / 2) {
+                int state = headers[move * HEADER + half + STATE];
+                if (state < 0 || state >= GAME_STATES.length)
+                    throw new IOException("Move journal has invalid moves.");
+            }
+        }
+    }
+}
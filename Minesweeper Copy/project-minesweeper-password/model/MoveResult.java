@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * The outcome of trying a move. Returned by Minesweeper.tryMakeSelection and Minesweeper.tryFlag
+ * so callers that probe many moves can check them without throwing.
+ */
+public enum MoveResult {
+    OK,
+    INVALID_LOCATION,
+    GAME_OVER,
+    UNCOVERED,
+    HINTED;
+}
@@ -0,0 +1,520 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates boards that can be won from a given first click by logic alone, so the player never
+ * has to guess. One candidate board is built per worker of a ForkJoinPool and the first one
+ * verified wins; the rest stop at their next step.
+ *
+ * A candidate is verified by playing it with a logic-only solver that reveals tiles as it deduces
+ * them, using the single-tile rules, the subset rule between neighbouring clues and the mine count.
+ * Whenever the solver is stuck, one mine on the frontier it cannot decide is moved to a tile no clue
+ * can see yet and the solver carries on from where it was, rather than the board being thrown away.
+ * That keeps everything already deduced sound: both tiles were undecided, so every deduction either
+ * left each out or held it in both clues it compared, whose counts change together.
+ */
+public class NoGuessGenerator {
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1; // Deduced safe, which the solver reveals straight away.
+    private static final byte MINE = 2; // Deduced to be a mine.
+    private static final int TRIES = 64; // Random probes for a hidden tile before scanning for one.
+    private static final int ROUNDS = 8; // Rounds of candidates to build before giving up.
+    private static final int SWAPS = 256; // Repairs within the frontier before starting again.
+    private static final int RESTARTS = 8; // Times a candidate starts again before giving up.
+
+    private int rows;
+    private int cols;
+    private int mineCount;
+    private ForkJoinPool pool;
+    private SplittableRandom seeds; // Guarded by itself.
+
+    /**
+     * Creates a generator on the common pool.
+     * @param rows The number of rows on each board.
+     * @param cols The number of columns on each board.
+     * @param mineCount The number of mines on each board.
+     * @param seed The seed every candidate board's seed is drawn from.
+     */
+    public NoGuessGenerator(int rows, int cols, int mineCount, long seed) throws MinesweeperException {
+        this(rows, cols, mineCount, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param rows The number of rows on each board.
+     * @param cols The number of columns on each board.
+     * @param mineCount The number of mines on each board.
+     * @param seed The seed every candidate board's seed is drawn from.
+     * @param pool The pool the candidates are built on, one per worker.
+     */
+    public NoGuessGenerator(int rows, int cols, int mineCount, long seed, ForkJoinPool pool) throws MinesweeperException {
+        if (rows <= 0 || cols <= 0 || (long)rows * cols > Integer.MAX_VALUE)
+            throw new MinesweeperException("Invalid number of rows or columns.");
+        if (mineCount < 0 || mineCount > rows * cols)
+            throw new MinesweeperException("Cannot instantiate Minesweeper with more mines than available tiles.");
+
+        this.rows = rows;
+        this.cols = cols;
+        this.mineCount = mineCount;
+        this.pool = pool;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return The number of rows on each board.
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * @return The number of columns on each board.
+     */
+    public int getCols() { return cols; }
+
+    /**
+     * @return The number of mines on each board.
+     */
+    public int getMineCount() { return mineCount; }
+
+    /**
+     * Checks that a board can be generated for a first click, without generating one.
+     * @param firstClick The tile the player will select first.
+     */
+    void check(Location firstClick) throws MinesweeperException {
+        if (firstClick.getRow() < 0 || firstClick.getRow() >= rows || firstClick.getCol() < 0 || firstClick.getCol() >= cols)
+            throw new MinesweeperException("Invalid location!");
+
+        int zone = (Math.min(firstClick.getRow() + 1, rows - 1) - Math.max(firstClick.getRow() - 1, 0) + 1)
+                 * (Math.min(firstClick.getCol() + 1, cols - 1) - Math.max(firstClick.getCol() - 1, 0) + 1);
+
+        if (mineCount > rows * cols - zone)
+            throw new MinesweeperException("Too many mines to keep the first selection clear.");
+    }
+
+    /**
+     * Generates a board that can be won by logic alone after selecting firstClick, which along
+     * with its neighbours holds no mine. The board is unplayed, so the player's first selection
+     * is still to be made; it is unseeded, as its mines no longer follow from any seed.
+     * @param firstClick The tile the player will select first.
+     * @return The board.
+     */
+    public Minesweeper generate(Location firstClick) throws MinesweeperException {
+        check(firstClick);
+
+        int start = firstClick.getRow() * cols + firstClick.getCol();
+
+        for (int round = 0 ; round < ROUNDS ; round++) {
+            AtomicBoolean found = new AtomicBoolean();
+            List<Callable<Minesweeper>> candidates = new ArrayList<>();
+
+            for (int i = 0 ; i < pool.getParallelism() ; i++) {
+                long seed;
+                synchronized (seeds) { seed = seeds.nextLong(); }
+                candidates.add(() -> new Candidate(seed, found).build(start));
+            }
+
+            try {
+                return pool.invokeAny(candidates);
+            } catch (ExecutionException e) {
+                continue; // Every candidate ran out of room to repair, which only the densest boards do.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MinesweeperException("Interrupted while generating a board.");
+            }
+        }
+        throw new MinesweeperException("Could not generate a board that can be won without guessing.");
+    }
+
+    /**
+     * One candidate board and the logic-only solver verifying it. Tiles the solver deduces are safe
+     * are revealed at once, so SAFE tiles are exactly the uncovered ones and their counts are clues.
+     */
+    private class Candidate {
+        private Minesweeper game;
+        private SplittableRandom rng;
+        private AtomicBoolean found;
+        private byte[] known; // UNKNOWN, SAFE or MINE for every tile.
+        private int[] queue; // Clues to re-examine, as a stack.
+        private int queueSize;
+        private boolean[] queued;
+        private int[] clues; // Revealed tiles that may still have unknown neighbours.
+        private int clueCount;
+        private int[] around = new int[8];
+        private int[] other = new int[8];
+        private int revealed;
+        private int minesFound;
+        private int unknown;
+        private int swaps; // Repairs that moved a mine to a tile a clue can see.
+        private int restarts;
+        private int[] endgame; // The unknown tiles once none was left hidden, null until then.
+        private int start;
+
+        Candidate(long seed, AtomicBoolean found) throws MinesweeperException {
+            int tiles = rows * cols;
+
+            this.rng = new SplittableRandom(seed);
+            this.game = new Minesweeper(rows, cols, mineCount, rng.split());
+            this.found = found;
+            this.known = new byte[tiles];
+            this.queue = new int[tiles];
+            this.queued = new boolean[tiles];
+            this.clues = new int[tiles];
+            this.unknown = tiles;
+        }
+
+        /**
+         * Places the mines clear of the first click and plays the board from it, repairing it whenever
+         * the solver is stuck, until every safe tile is revealed.
+         * @return The board, its mines moved wherever a repair needed to.
+         */
+        Minesweeper build(int start) {
+            this.start = start;
+            game.placeMines(start);
+            reveal(start);
+
+            while (revealed < rows * cols - mineCount) {
+                if (found.get())
+                    throw new CancellationException("Another candidate was verified first.");
+
+                propagate();
+
+                if (revealed < rows * cols - mineCount && !subsetRule() && !mineCountRule())
+                    repair();
+            }
+
+            found.set(true);
+            return game;
+        }
+
+        /**
+         * Applies the single-tile rules to every queued clue until none has anything left to give:
+         * a clue whose mines are all found makes its unknown neighbours safe, and one with as many
+         * unknown neighbours as mines left makes them all mines.
+         */
+        private void propagate() {
+            while (queueSize > 0) {
+                int index = queue[--queueSize];
+                queued[index] = false;
+
+                int unknowns = unknownAround(index, around);
+
+                if (unknowns == 0)
+                    continue;
+
+                int left = game.adjacentMines(index) - minesAround(index);
+
+                if (left == 0) {
+                    for (int i = 0 ; i < unknowns ; i++)
+                        reveal(around[i]);
+                } else if (left == unknowns) {
+                    for (int i = 0 ; i < unknowns ; i++)
+                        markMine(around[i]);
+                }
+            }
+        }
+
+        /**
+         * Compares every clue with the clues near it. When one clue's unknown neighbours are all
+         * neighbours of another, the tiles only the other sees hold the difference of their mines left.
+         * @return True if anything was deduced.
+         */
+        private boolean subsetRule() {
+            boolean deduced = false;
+            int kept = 0;
+
+            for (int c = 0 ; c < clueCount ; c++) {
+                int index = clues[c];
+                int unknowns = unknownAround(index, around);
+
+                if (unknowns == 0)
+                    continue; // Drop clues with nothing left to decide.
+                clues[kept++] = index;
+
+                int left = game.adjacentMines(index) - minesAround(index);
+                int row = index / cols;
+                int col = index % cols;
+
+                for (int o_row = Math.max(row - 2, 0) ; o_row <= Math.min(row + 2, rows - 1) ; o_row++)
+                    for (int o_col = Math.max(col - 2, 0) ; o_col <= Math.min(col + 2, cols - 1) ; o_col++) {
+                        int o_index = o_row * cols + o_col;
+
+                        if (o_index == index || known[o_index] != SAFE)
+                            continue;
+
+                        int o_unknowns = unknownAround(o_index, other);
+
+                        if (o_unknowns <= unknowns || !containsAll(o_index, unknowns))
+                            continue;
+
+                        int extra = o_unknowns - unknowns; // Unknown tiles only the other clue sees.
+                        int o_left = game.adjacentMines(o_index) - minesAround(o_index) - left;
+
+                        if (o_left != 0 && o_left != extra)
+                            continue;
+
+                        for (int i = 0 ; i < o_unknowns ; i++)
+                            if (!adjacent(index, other[i])) {
+                                if (o_left == 0)
+                                    reveal(other[i]);
+                                else
+                                    markMine(other[i]);
+                            }
+                        deduced = true;
+                        unknowns = unknownAround(index, around);
+                        left = game.adjacentMines(index) - minesAround(index);
+                    }
+            }
+
+            clueCount = kept; // Clues revealed during the pass went on the end and were compared too.
+            return deduced;
+        }
+
+        /**
+         * @return True if the mines left decide every unknown tile at once, which are then decided.
+         */
+        private boolean mineCountRule() {
+            int left = mineCount - minesFound;
+
+            if (left != 0 && left != unknown)
+                return false;
+
+            for (int index = 0 ; index < known.length ; index++)
+                if (known[index] == UNKNOWN) {
+                    if (left == 0)
+                        reveal(index);
+                    else
+                        markMine(index);
+                }
+            return true;
+        }
+
+        /**
+         * Moves one mine the solver is stuck on to a hidden tile, one with no revealed neighbour,
+         * and queues the clues whose counts changed. A stuck frontier always holds a mine, as a
+         * clue whose unknown neighbours were all safe would have revealed them. Once no tile is
+         * hidden the mine goes to another unknown tile instead, which is just as sound but can
+         * leave the solver stuck again, so only so many of those are tried before a restart.
+         */
+        private void repair() {
+            int from = -1;
+            int offset = clueCount > 0 ? rng.nextInt(clueCount) : 0;
+
+            for (int c = 0 ; c < clueCount && from < 0 ; c++) {
+                int unknowns = unknownAround(clues[(offset + c) % clueCount], around);
+
+                for (int i = 0 ; i < unknowns && from < 0 ; i++)
+                    if (game.isMine(around[i]))
+                        from = around[i];
+            }
+
+            int to = endgame == null ? hiddenTile() : -1;
+
+            if (to < 0 && swaps++ < SWAPS)
+                to = endgameTile(from);
+            if (from < 0 || to < 0) {
+                restart();
+                return;
+            }
+
+            game.moveMine(from, to);
+            queueAround(from);
+            queueAround(to);
+        }
+
+        /**
+         * Escapes a dead end with no room left to repair it in place, such as a last pocket of
+         * tiles no arrangement of its mines can settle. Every mine on an unknown tile moves
+         * anywhere else on the board, which may spoil what has been deduced, so the solver starts
+         * again from the first click. It gets stuck next where the mines landed, with hidden tiles
+         * still around to repair the board in place, and the pocket is all safe by the end.
+         */
+        private void restart() {
+            if (restarts++ == RESTARTS)
+                throw new IllegalStateException("No room left to repair the board.");
+
+            int[] stuck = new int[unknown];
+            int[] targets = new int[revealed]; // Revealed tiles outside the first click's neighbourhood.
+            int count = 0;
+            int targetCount = 0;
+
+            for (int index = 0 ; index < known.length ; index++) {
+                if (known[index] == UNKNOWN && game.isMine(index))
+                    stuck[count++] = index;
+                else if (known[index] == SAFE && (Math.abs(index / cols - start / cols) > 1 || Math.abs(index % cols - start % cols) > 1))
+                    targets[targetCount++] = index;
+            }
+
+            if (targetCount < count) // Nowhere to put the pocket's mines, so this board cannot be won by logic.
+                throw new IllegalStateException("No room left to repair the board.");
+
+            for (int i = 0 ; i < count ; i++) {
+                int pick = rng.nextInt(targetCount);
+
+                game.moveMine(stuck[i], targets[pick]);
+                targets[pick] = targets[--targetCount];
+            }
+
+            Arrays.fill(known, UNKNOWN);
+            Arrays.fill(queued, false);
+            queueSize = 0;
+            clueCount = 0;
+            revealed = 0;
+            minesFound = 0;
+            unknown = known.length;
+            swaps = 0;
+            endgame = null;
+            reveal(start);
+        }
+
+        /**
+         * @return A random unknown tile without a mine that no clue can see, or -1 if there is none.
+         */
+        private int hiddenTile() {
+            for (int i = 0 ; i < TRIES ; i++) {
+                int index = rng.nextInt(known.length);
+
+                if (isHidden(index))
+                    return index;
+            }
+
+            int offset = rng.nextInt(known.length);
+
+            for (int i = 0 ; i < known.length ; i++) {
+                int index = (offset + i) % known.length;
+
+                if (isHidden(index))
+                    return index;
+            }
+            return -1;
+        }
+
+        /**
+         * Draws from the unknown tiles left once no tile is hidden, which only ever get fewer,
+         * so the board is scanned for them once rather than on every repair.
+         * @return A random unknown tile without a mine other than from, or -1 if there is none.
+         */
+        private int endgameTile(int from) {
+            if (endgame == null) {
+                endgame = new int[unknown];
+                int count = 0;
+
+                for (int index = 0 ; index < known.length ; index++)
+                    if (known[index] == UNKNOWN)
+                        endgame[count++] = index;
+            }
+
+            int to = -1;
+            int seen = 0;
+
+            for (int index : endgame)
+                if (index != from && known[index] == UNKNOWN && !game.isMine(index) && rng.nextInt(++seen) == 0)
+                    to = index;
+            return to;
+        }
+
+        private boolean isHidden(int index) {
+            if (known[index] != UNKNOWN || game.isMine(index))
+                return false;
+
+            int row = index / cols;
+            int col = index % cols;
+
+            for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+                for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++)
+                    if (known[d_row * cols + d_col] == SAFE)
+                        return false;
+            return true;
+        }
+
+        private void reveal(int index) {
+            if (known[index] != UNKNOWN)
+                return;
+
+            known[index] = SAFE;
+            revealed++;
+            unknown--;
+            clues[clueCount++] = index;
+            push(index);
+            queueAround(index);
+        }
+
+        private void markMine(int index) {
+            if (known[index] != UNKNOWN)
+                return;
+
+            known[index] = MINE;
+            minesFound++;
+            unknown--;
+            queueAround(index);
+        }
+
+        private void push(int index) {
+            if (!queued[index]) {
+                queued[index] = true;
+                queue[queueSize++] = index;
+            }
+        }
+
+        /**
+         * Queues the revealed neighbours of index, whose unknowns or counts have changed.
+         */
+        private void queueAround(int index) {
+            int row = index / cols;
+            int col = index % cols;
+
+            for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+                for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++)
+                    if (known[d_row * cols + d_col] == SAFE)
+                        push(d_row * cols + d_col);
+        }
+
+        /**
+         * @param into Receives the unknown neighbours of index.
+         * @return The number of unknown neighbours.
+         */
+        private int unknownAround(int index, int[] into) {
+            int row = index / cols;
+            int col = index % cols;
+            int count = 0;
+
+            for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+                for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++)
+                    if (known[d_row * cols + d_col] == UNKNOWN)
+                        into[count++] = d_row * cols + d_col;
+            return count;
+        }
+
+        private int minesAround(int index) {
+            int row = index / cols;
+            int col = index % cols;
+            int count = 0;
+
+            for (int d_row = Math.max(row - 1, 0) ; d_row <= Math.min(row + 1, rows - 1) ; d_row++)
+                for (int d_col = Math.max(col - 1, 0) ; d_col <= Math.min(col + 1, cols - 1) ; d_col++)
+                    if (known[d_row * cols + d_col] == MINE)
+                        count++;
+            return count;
+        }
+
+        /**
+         * @return True if every one of the first count tiles in around is a neighbour of index.
+         */
+        private boolean containsAll(int index, int count) {
+            for (int i = 0 ; i < count ; i++)
+                if (!adjacent(index, around[i]))
+                    return false;
+            return true;
+        }
+
+        private boolean adjacent(int a, int b) {
+            return a != b && Math.abs(a / cols - b / cols) <= 1 && Math.abs(a % cols - b % cols) <= 1;
+        }
+    }
+}
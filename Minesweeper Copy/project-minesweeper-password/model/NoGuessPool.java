@@ -0,0 +1,104 @@
+package model;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps no-guess boards for one first click ready ahead of time, so a player never waits on the
+ * generator. A background thread fills the pool and tops it up again as boards are taken.
+ * If the generator fails several times in a row, the board most likely cannot be generated at
+ * all, so the thread stops and boards taken from then on fail with the generator's exception.
+ */
+public class NoGuessPool implements AutoCloseable {
+    private static final int MAX_FAILURES = 3; // Consecutive failures before the filler gives up.
+    private static final long WAIT_MILLIS = 100; // How often a waiting take looks for a failed filler.
+
+    private NoGuessGenerator generator;
+    private Location firstClick;
+    private BlockingQueue<Minesweeper> boards;
+    private Thread filler;
+    private volatile MinesweeperException failure; // Why the filler stopped, null while it runs.
+
+    /**
+     * Creates the pool and starts filling it.
+     * @param generator Generates every board.
+     * @param firstClick The tile the player will select first on every board.
+     * @param capacity The number of boards kept ready.
+     */
+    public NoGuessPool(NoGuessGenerator generator, Location firstClick, int capacity) throws MinesweeperException {
+        if (capacity <= 0)
+            throw new MinesweeperException("A pool must hold at least one board.");
+        generator.check(firstClick); // Fail here on what can be checked up front.
+
+        this.generator = generator;
+        this.firstClick = firstClick;
+        this.boards = new ArrayBlockingQueue<>(capacity);
+        this.filler = new Thread(this::fill, "no-guess-pool");
+        filler.setDaemon(true);
+        filler.start();
+    }
+
+    private void fill() {
+        int failures = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                boards.put(generator.generate(firstClick));
+                failures = 0;
+            } catch (InterruptedException e) {
+                return; // Closed.
+            } catch (MinesweeperException e) {
+                if (Thread.currentThread().isInterrupted())
+                    return; // Closed while generating.
+                if (++failures == MAX_FAILURES) {
+                    failure = e;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A board, waiting for one if the pool is empty.
+     * @throws MinesweeperException If the pool is empty and has stopped generating boards.
+     */
+    public Minesweeper take() throws InterruptedException, MinesweeperException {
+        while (true) {
+            Minesweeper board = boards.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            if (board != null)
+                return board;
+            if (failure != null)
+                return poll(); // One may have come in just before the filler failed.
+        }
+    }
+
+    /**
+     * @return A board, or null if none is ready.
+     * @throws MinesweeperException If the pool is empty and has stopped generating boards.
+     */
+    public Minesweeper poll() throws MinesweeperException {
+        Minesweeper board = boards.poll();
+        if (board == null && failure != null)
+            throw failure;
+        return board;
+    }
+
+    /**
+     * @return The number of boards ready.
+     */
+    public int size() { return boards.size(); }
+
+    /**
+     * @return The tile the player will select first on every board.
+     */
+    public Location getFirstClick() { return firstClick; }
+
+    /**
+     * Stops filling the pool. Boards already in it can still be taken.
+     */
+    @Override
+    public void close() {
+        filler.interrupt();
+    }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Packed tile storage outside the Java heap, in memory from a BoardArena. Tiles are read and
+ * written with absolute gets and puts, which never touch the buffer's position, so any number
+ * of threads may read a board while no move is being made on it. Every access checks the arena
+ * first, so a board whose arena has been closed fails rather than reading freed memory.
+ *
+ * Copies are bulk copies of the whole board into new memory from the same arena; a reset
+ * refills the memory in place rather than allocating more.
+ */
+class OffHeapBoard extends Board {
+    private static final int FILL_SIZE = 1 << 12;
+
+    private final BoardArena arena;
+    private final ByteBuffer tiles;
+
+    /**
+     * Creates a board with every tile set to the same value.
+     * @param arena The arena to allocate the tiles from.
+     * @param length The number of tiles.
+     * @param value The value of every tile.
+     */
+    OffHeapBoard(BoardArena arena, int length, byte value) {
+        this.arena = arena;
+        tiles = arena.allocate(this, length);
+        fill(value); // The memory may have held another board.
+    }
+
+    /**
+     * Copy constructor. Copies every tile of the template in one bulk copy.
+     * @param template The OffHeapBoard to copy.
+     */
+    private OffHeapBoard(OffHeapBoard template) {
+        arena = template.arena;
+        tiles = arena.allocate(this, template.length());
+        tiles().put(0, template.tiles(), 0, template.length());
+    }
+
+    /**
+     * @return The tiles, once the arena is known to be open.
+     * @throws IllegalStateException If the arena has been closed.
+     */
+    private ByteBuffer tiles() {
+        if (arena.isClosed())
+            throw new IllegalStateException("The board arena is closed.");
+        return tiles;
+    }
+
+    private void fill(byte value) {
+        byte[] run = new byte[Math.min(FILL_SIZE, length())];
+        Arrays.fill(run, value);
+
+        for (int index = 0 ; index < length() ; index += run.length)
+            tiles().put(index, run, 0, Math.min(run.length, length() - index));
+    }
+
+    @Override
+    Board copy() { return new OffHeapBoard(this); }
+
+    @Override
+    Board blank(byte value) {
+        fill(value);
+        return this;
+    }
+
+    @Override
+    int length() { return tiles.capacity(); }
+
+    @Override
+    byte get(int index) { return tiles().get(index); }
+
+    @Override
+    void set(int index, byte value) { tiles().put(index, value); }
+
+    @Override
+    void read(int from, byte[] dst, int length) { tiles().get(from, dst, 0, length); }
+
+    @Override
+    void write(int from, byte[] src, int length) { tiles().put(from, src, 0, length); }
+}
@@ -0,0 +1,117 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Packed tile storage on the heap, split into fixed-size pages.
+ * Copies share every page until one of them writes to it, so copying a
+ * board costs one pointer per page and each write copies at most one page.
+ *
+ * A board may write a page in place only if it copied the page itself and no board has been
+ * copied since. Copies bump a shared epoch rather than tell the template its pages are shared,
+ * so copying only reads the template and any number of threads can copy one board at once.
+ */
+class PagedBoard extends Board {
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final AtomicLong EPOCH = new AtomicLong(1); // Bumped by every copy.
+
+    private byte[][] pages;
+    private long[] stamps; // The epoch each page was copied in by this board, 0 if it never was.
+    private int length;
+
+    /**
+     * Creates a board with every tile set to the same value.
+     * All pages start out sharing one page and are copied as they are written.
+     * @param length The number of tiles.
+     * @param value The value of every tile.
+     */
+    PagedBoard(int length, byte value) {
+        this.length = length;
+
+        byte[] page = new byte[PAGE_SIZE];
+        Arrays.fill(page, value);
+
+        pages = new byte[(length + PAGE_MASK) >>> PAGE_SHIFT][];
+        Arrays.fill(pages, page);
+        stamps = new long[pages.length];
+    }
+
+    /**
+     * Copy constructor. Shares every page with the template, and starts a new epoch so that
+     * neither board writes through to the other.
+     * @param template The PagedBoard to copy.
+     */
+    PagedBoard(PagedBoard template) {
+        EPOCH.incrementAndGet(); // Before the pages are shared, so the template sees it first.
+        length = template.length;
+        pages = template.pages.clone();
+        stamps = new long[pages.length];
+    }
+
+    @Override
+    Board copy() { return new PagedBoard(this); }
+
+    @Override
+    Board blank(byte value) { return new PagedBoard(length, value); }
+
+    @Override
+    int length() { return length; }
+
+    @Override
+    byte get(int index) { return pages[index >>> PAGE_SHIFT][index & PAGE_MASK]; }
+
+    /**
+     * Sets the packed value of the tile at index, copying its page first if it is shared.
+     */
+    @Override
+    void set(int index, byte value) {
+        int page = index >>> PAGE_SHIFT;
+        own(page);
+        pages[page][index & PAGE_MASK] = value;
+    }
+
+    /**
+     * Copies a page unless this board copied it and no board has been copied since.
+     */
+    private void own(int page) {
+        long epoch = EPOCH.get();
+
+        if (stamps[page] != epoch) {
+            pages[page] = pages[page].clone();
+            stamps[page] = epoch;
+        }
+    }
+
+    /**
+     * Copies a run of tiles out of the board, a page at a time.
+     */
+    @Override
+    void read(int from, byte[] dst, int length) {
+        for (int done = 0 ; done < length ; ) {
+            int index = from + done;
+            int run = Math.min(length - done, PAGE_SIZE - (index & PAGE_MASK));
+
+            System.arraycopy(pages[index >>> PAGE_SHIFT], index & PAGE_MASK, dst, done, run);
+            done += run;
+        }
+    }
+
+    /**
+     * Copies a run of tiles into the board, copying each page first if it is shared.
+     */
+    @Override
+    void write(int from, byte[] src, int length) {
+        for (int done = 0 ; done < length ; ) {
+            int index = from + done;
+            int page = index >>> PAGE_SHIFT;
+            int run = Math.min(length - done, PAGE_SIZE - (index & PAGE_MASK));
+
+            own(page);
+            System.arraycopy(src, done, pages[page], index & PAGE_MASK, run);
+            done += run;
+        }
+    }
+}
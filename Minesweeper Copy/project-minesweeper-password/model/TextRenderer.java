@@ -0,0 +1,141 @@
+package model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.BitSet;
+
+/**
+ * Writes a game's CLI symbols to an Appendable one row at a time, through a reusable line buffer.
+ * A frame is the board (or a window of it) with a space after each symbol and a newline between
+ * rows, the same text Minesweeper.toString returns.
+ *
+ * Once registered as an observer, the renderer also tracks which rows have changed since they
+ * were last written, so a terminal can be updated by rewriting only those rows.
+ */
+public class TextRenderer implements MinesweeperObserver {
+    private Minesweeper game;
+    private int rows;
+    private int cols;
+    private char[] line; // Reused for every row written.
+    private BitSet changed; // Rows changed since they were last written.
+
+    /**
+     * Creates a renderer with every row marked as changed.
+     * @param game The game to render.
+     */
+    public TextRenderer(Minesweeper game) {
+        this.game = game;
+        this.rows = game.getRows();
+        this.cols = game.getCols();
+
+        line = new char[cols * 2];
+        changed = new BitSet(rows);
+        changed.set(0, rows);
+    }
+
+    /**
+     * Writes the whole board.
+     * @param out Where the frame is written.
+     */
+    public void render(Appendable out) throws IOException {
+        render(out, 0, 0, rows, cols);
+    }
+
+    /**
+     * Writes a window of the board. The window is clipped to the board.
+     * @param out Where the frame is written.
+     * @param firstRow The top row of the window.
+     * @param firstCol The left column of the window.
+     * @param height The number of rows in the window.
+     * @param width The number of columns in the window.
+     */
+    public void render(Appendable out, int firstRow, int firstCol, int height, int width) throws IOException {
+        int start = Math.max(0, firstRow);
+        int lastRow = Math.min(rows, firstRow + height);
+
+        for (int row = start ; row < lastRow ; row++) {
+            if (row > start)
+                out.append('\n');
+            writeRow(out, row, firstCol, width);
+        }
+    }
+
+    /**
+     * Rewrites the rows of a window that changed since they were last written. Each row is
+     * preceded by an ANSI escape moving the cursor to the row's line, counting the window's first
+     * row as line 1, so a terminal showing the previous frame is brought up to date in place.
+     * @param out Where the rows are written.
+     * @param firstRow The top row of the window.
+     * @param firstCol The left column of the window.
+     * @param height The number of rows in the window.
+     * @param width The number of columns in the window.
+     * @return The number of rows written.
+     */
+    public int renderChanged(Appendable out, int firstRow, int firstCol, int height, int width) throws IOException {
+        int lastRow = Math.min(rows, firstRow + height);
+        int written = 0;
+
+        for (int row = changed.nextSetBit(Math.max(0, firstRow)) ; row >= 0 && row < lastRow ; row = changed.nextSetBit(row + 1)) {
+            out.append("\033[");
+            appendNumber(out, row - firstRow + 1);
+            out.append(";1H");
+            writeRow(out, row, firstCol, width);
+            written++;
+        }
+
+        return written;
+    }
+
+    /**
+     * @param row A row of the board.
+     * @return True if the row changed since it was last written, False otherwise.
+     */
+    public boolean isChanged(int row) { return changed.get(row); }
+
+    /**
+     * Writes the symbols of one row within the window's columns.
+     */
+    private void writeRow(Appendable out, int row, int firstCol, int width) throws IOException {
+        int from = Math.max(0, firstCol);
+        int to = Math.min(cols, firstCol + width);
+        int length = 0;
+
+        for (int index = row * cols + from, end = row * cols + to ; index < end ; index++) {
+            line[length++] = game.symbolAt(index);
+            line[length++] = ' ';
+        }
+
+        // Write the buffer in one call where the Appendable allows it, as append(CharSequence) would copy it.
+        if (out instanceof StringBuilder)
+            ((StringBuilder)out).append(line, 0, length);
+        else if (out instanceof Writer)
+            ((Writer)out).write(line, 0, length);
+        else
+            for (int i = 0 ; i < length ; i++)
+                out.append(line[i]);
+
+        changed.clear(row);
+    }
+
+    private static void appendNumber(Appendable out, int number) throws IOException {
+        if (number >= 10)
+            appendNumber(out, number / 10);
+        out.append((char)('0' + number % 10));
+    }
+
+    @Override
+    public void tileUpdated(Location loc) {
+        changed.set(loc.getRow());
+    }
+
+    @Override
+    public void tilesUpdated(BoardChange changes) {
+        if (changes.isWholeBoard()) {
+            changed.set(0, rows);
+            return;
+        }
+
+        for (int i = 0 ; i < changes.size() ; i++)
+            changed.set(changes.getRow(i));
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * BoardKernel on the Vector API, at the widest byte vector the CPU has (32 tiles with AVX2,
+ * 64 with AVX-512). Only loaded reflectively by BoardKernel, so the model still runs
+ * when jdk.incubator.vector is not in the boot layer; the tail of each row is left to the scalar code.
+ */
+class VectorBoardKernel extends BoardKernel {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final byte STATE_BITS = (byte)0xF0; // Everything but the count nibble.
+
+    @Override
+    boolean isVectorized() { return true; }
+
+    @Override
+    void mines(byte[] tiles, byte[] mines, int from, int to) {
+        int col = from;
+
+        for (int bound = from + SPECIES.loopBound(to - from) ; col < bound ; col += SPECIES.length())
+            ByteVector.fromArray(SPECIES, tiles, col).lanewise(VectorOperators.LSHR, 7).intoArray(mines, col + 1);
+
+        super.mines(tiles, mines, col, to);
+    }
+
+    @Override
+    void counts(byte[] above, byte[] row, byte[] below, byte[] tiles, int from, int to) {
+        int col = from;
+
+        for (int bound = from + SPECIES.loopBound(to - from) ; col < bound ; col += SPECIES.length()) {
+            ByteVector count = ByteVector.fromArray(SPECIES, above, col)
+                .add(ByteVector.fromArray(SPECIES, above, col + 1))
+                .add(ByteVector.fromArray(SPECIES, above, col + 2))
+                .add(ByteVector.fromArray(SPECIES, row, col))
+                .add(ByteVector.fromArray(SPECIES, row, col + 2))
+                .add(ByteVector.fromArray(SPECIES, below, col))
+                .add(ByteVector.fromArray(SPECIES, below, col + 1))
+                .add(ByteVector.fromArray(SPECIES, below, col + 2));
+
+            ByteVector.fromArray(SPECIES, tiles, col).and(STATE_BITS).or(count).intoArray(tiles, col);
+        }
+
+        super.counts(above, row, below, tiles, col, to);
+    }
+}
@@ -0,0 +1,101 @@
+package model.tests;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.platform.commons.annotation.Testable;
+
+@Testable
+public class BoardKernelTest {
+    private static final int WIDEST=2*64+2; // past two vectors of the widest species, AVX-512's 64 bytes
+
+    private Object scalar;
+    private Object vector;
+    private Method mines;
+    private Method counts;
+
+    /**
+     * the kernels are package-private, so they are reached the way BoardKernel loads the vector one
+     */
+    @Before
+    public void setUp() throws ReflectiveOperationException{
+        Assume.assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+
+        Class<?> kernel=Class.forName("model.BoardKernel");
+        scalar=create(kernel);
+        vector=create(Class.forName("model.VectorBoardKernel"));
+        mines=kernel.getDeclaredMethod("mines", byte[].class, byte[].class, int.class);
+        counts=kernel.getDeclaredMethod("counts", byte[].class, byte[].class, byte[].class, byte[].class, int.class);
+        mines.setAccessible(true);
+        counts.setAccessible(true);
+
+        Method vectorized=kernel.getDeclaredMethod("isVectorized");
+        vectorized.setAccessible(true);
+        assertEquals(true, vectorized.invoke(vector));
+    }
+
+    private static Object create(Class<?> kernel) throws ReflectiveOperationException{
+        Constructor<?> constructor=kernel.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    /**
+     * tests that the vector kernel unpacks the same mines as the scalar one, whatever the other bits
+     * of a tile hold, and leaves the blank tiles either side of the row alone
+     */
+    @Test
+    public void minesTest() throws ReflectiveOperationException{
+        Random random=new Random(20);
+
+        for (int cols=1; cols<=WIDEST; cols++) {
+            byte[] tiles=new byte[cols];
+            random.nextBytes(tiles); // about half the tiles have the mine bit, the high bit of the byte, set
+            byte[] expected=new byte[cols+2];
+            byte[] actual=new byte[cols+2];
+            expected[0]=actual[0]=expected[cols+1]=actual[cols+1]=-1;
+
+            mines.invoke(scalar, tiles, expected, cols);
+            mines.invoke(vector, tiles, actual, cols);
+            assertArrayEquals("cols="+cols, expected, actual);
+        }
+    }
+
+    /**
+     * tests that the vector kernel counts the same neighbours as the scalar one and keeps the top nibble
+     */
+    @Test
+    public void countsTest() throws ReflectiveOperationException{
+        Random random=new Random(20);
+
+        for (int cols=1; cols<=WIDEST; cols++) {
+            byte[] above=randomMines(random, cols);
+            byte[] row=randomMines(random, cols);
+            byte[] below=randomMines(random, cols);
+            byte[] expected=new byte[cols];
+            random.nextBytes(expected);
+            byte[] actual=Arrays.copyOf(expected, cols);
+
+            counts.invoke(scalar, above, row, below, expected, cols);
+            counts.invoke(vector, above, row, below, actual, cols);
+            assertArrayEquals("cols="+cols, expected, actual);
+        }
+    }
+
+    /**
+     * @return an unpacked row of mines, 0 or 1 a byte, with a tile either side
+     */
+    private static byte[] randomMines(Random random, int cols) {
+        byte[] mines=new byte[cols+2];
+        for (int col=0; col<mines.length; col++)
+            mines[col]=(byte)random.nextInt(2);
+        return mines;
+    }
+}
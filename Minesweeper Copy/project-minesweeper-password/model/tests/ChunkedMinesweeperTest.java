@@ -0,0 +1,88 @@
+package model.tests;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.ChunkedMinesweeper;
+import model.GameState;
+import model.Location;
+import model.MinesweeperException;
+import model.MoveResult;
+
+@Testable
+public class ChunkedMinesweeperTest {
+    /**
+     * tests that a cascade on an empty board crosses every chunk border and wins
+     */
+    @Test
+    public void cascadeTest() throws MinesweeperException{
+        ChunkedMinesweeper minesweeper=new ChunkedMinesweeper(150, 200, 0, 1L);
+
+        minesweeper.makeSelection(new Location(75, 100));
+        assertEquals(GameState.WON, minesweeper.getGameState());
+        assertEquals(150*200, minesweeper.getRevealedCount());
+        assertEquals(12, minesweeper.getTouchedChunkCount());
+    }
+
+    /**
+     * tests that the numbers agree with the mines, across chunk borders, once every safe tile is open
+     */
+    @Test
+    public void countsTest() throws MinesweeperException{
+        ChunkedMinesweeper minesweeper=new ChunkedMinesweeper(130, 150, 0.15, 7L);
+        assertEquals(Math.round(0.15*64*64)*4+Math.round(0.15*64*22)*2+Math.round(0.15*2*64)*2+Math.round(0.15*2*22),
+            minesweeper.getMineCount());
+
+        // Lose a copy of the board to see where the mines are, then open everything else:
+        ChunkedMinesweeper copy=new ChunkedMinesweeper(130, 150, 0.15, 7L);
+        for (int row=0; row<130 && copy.getGameState()==GameState.IN_PROGRESS; row++)
+            for (int col=0; col<150 && copy.getGameState()==GameState.IN_PROGRESS; col++)
+                copy.tryMakeSelection(new Location(row, col));
+        assertEquals(GameState.LOST, copy.getGameState());
+
+        for (int row=0; row<130; row++)
+            for (int col=0; col<150; col++)
+                if ("MX".indexOf(copy.getSymbol(row, col))<0 && minesweeper.isCovered(new Location(row, col)))
+                    minesweeper.makeSelection(new Location(row, col));
+
+        assertEquals(GameState.WON, minesweeper.getGameState());
+        assertEquals(0, minesweeper.getCoveredSafeCount());
+        int mines=0;
+        for (int row=0; row<130; row++) {
+            for (int col=0; col<150; col++) {
+                char symbol=minesweeper.getSymbol(row, col);
+                if (symbol=='M') {
+                    mines++;
+                    continue;
+                }
+
+                int count=0;
+                for (int d_row=row-1; d_row<=row+1; d_row++)
+                    for (int d_col=col-1; d_col<=col+1; d_col++)
+                        if (d_row>=0 && d_row<130 && d_col>=0 && d_col<150 && minesweeper.getSymbol(d_row, d_col)=='M')
+                            count++;
+                assertEquals((count==0) ? ' ' : (char)('0'+count), symbol);
+            }
+        }
+        assertEquals(minesweeper.getMineCount(), mines);
+    }
+
+    /**
+     * tests that a huge board only keeps the chunks that were played
+     */
+    @Test
+    public void hugeBoardTest() throws MinesweeperException{
+        ChunkedMinesweeper minesweeper=new ChunkedMinesweeper(100000, 100000, 0.2, 3L);
+        Location loc=new Location(50000, 50000);
+
+        assertEquals(MoveResult.OK, minesweeper.tryFlag(loc));
+        assertEquals('F', minesweeper.getSymbol(loc));
+        assertEquals(MoveResult.OK, minesweeper.tryMakeSelection(loc));
+        assertEquals(MoveResult.OK, minesweeper.tryMakeSelection(loc));
+        assertEquals(1, minesweeper.getMoveCount());
+        assertTrue(minesweeper.getTouchedChunkCount() <= 4);
+        assertEquals(MoveResult.INVALID_LOCATION, minesweeper.tryMakeSelection(new Location(100000, 0)));
+    }
+}
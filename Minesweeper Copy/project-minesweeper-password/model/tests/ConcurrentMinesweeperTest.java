@@ -0,0 +1,156 @@
+package model.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.ConcurrentMinesweeper;
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MoveResult;
+
+@Testable
+public class ConcurrentMinesweeperTest {
+    /**
+     * tests that players racing over every safe tile open each one exactly once and win together
+     */
+    @Test
+    public void sharedBoardTest() throws MinesweeperException, InterruptedException{
+        Minesweeper minesweeper=new Minesweeper(200, 200, 4000, 5L);
+        ConcurrentMinesweeper shared=new ConcurrentMinesweeper(minesweeper);
+        List<Location> safe=new ArrayList<>(shared.snapshot().getPossibleSelections()); // the shared board's mines are placed
+
+        List<Thread> players=new ArrayList<>();
+        for (int player=0; player<16; player++) {
+            List<Location> moves=new ArrayList<>(safe);
+            Collections.shuffle(moves, new Random(player));
+            players.add(new Thread(() -> {
+                for (Location loc : moves)
+                    shared.tryMakeSelection(loc);
+            }));
+        }
+        for (Thread player : players)
+            player.start();
+        for (Thread player : players)
+            player.join();
+
+        assertEquals(GameState.WON, shared.getGameState());
+        assertEquals(0, shared.getCoveredSafeCount());
+        assertEquals(safe.size(), shared.getRevealedCount());
+
+        minesweeper.uncoverBoard();
+        assertEquals(minesweeper.toString(), shared.toString());
+        assertEquals(GameState.WON, shared.snapshot().getGameState());
+    }
+
+    /**
+     * tests flags, hints and losing on a shared board
+     */
+    @Test
+    public void loseTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(10, 10, 20, 3L);
+        ConcurrentMinesweeper shared=new ConcurrentMinesweeper(minesweeper);
+        Minesweeper uncovered=new Minesweeper(minesweeper);
+        uncovered.uncoverBoard();
+
+        Location mine=null;
+        for (int row=0; row<10 && mine==null; row++)
+            for (int col=0; col<10 && mine==null; col++)
+                if (uncovered.getSymbol(row, col)=='M')
+                    mine=new Location(row, col);
+
+        assertEquals(MoveResult.OK, shared.tryFlag(mine));
+        assertEquals(1, shared.getFlagCount());
+        assertEquals(MoveResult.OK, shared.tryMakeSelection(mine));
+        assertEquals(0, shared.getFlagCount());
+
+        Location hint=shared.giveHint();
+        assertEquals('H', shared.getSymbol(hint.getRow(), hint.getCol()));
+        assertEquals(MoveResult.HINTED, shared.tryFlag(hint));
+
+        assertEquals(MoveResult.OK, shared.tryMakeSelection(mine));
+        assertEquals(GameState.LOST, shared.getGameState());
+        assertEquals(MoveResult.GAME_OVER, shared.tryMakeSelection(hint));
+        assertEquals(0, shared.getHintCount());
+        assertEquals('X', shared.getSymbol(mine.getRow(), mine.getCol()));
+        assertEquals(GameState.LOST, shared.snapshot().getGameState());
+    }
+
+    /**
+     * tests that hints on shared boards with the same seed fall on the same tiles
+     */
+    @Test
+    public void hintTest() throws MinesweeperException{
+        ConcurrentMinesweeper shared=new ConcurrentMinesweeper(30, 30, 100, 7L);
+        ConcurrentMinesweeper again=new ConcurrentMinesweeper(30, 30, 100, 7L);
+
+        for (int hint=0; hint<10; hint++)
+            assertEquals(shared.giveHint(), again.giveHint());
+        assertEquals(10, shared.getHintCount());
+    }
+
+    /**
+     * tests that a detonation racing the winning move either loses the game or is turned away,
+     * and never leaves a detonated mine on a won board
+     */
+    @Test
+    public void raceTest() throws MinesweeperException, InterruptedException{
+        Minesweeper minesweeper=new Minesweeper(100, 100, 1000, 9L);
+        minesweeper.makeSelection(new Location(50, 50));
+        for (Location loc : minesweeper.getPossibleSelections()) { // Open every safe tile but one.
+            Minesweeper trial=new Minesweeper(minesweeper);
+            trial.tryMakeSelection(loc);
+            if (trial.getGameState()==GameState.IN_PROGRESS)
+                minesweeper.tryMakeSelection(loc);
+        }
+        assertEquals(1, minesweeper.getCoveredSafeCount());
+        Location last=minesweeper.getPossibleSelections().iterator().next();
+
+        Minesweeper uncovered=new Minesweeper(minesweeper);
+        uncovered.uncoverBoard();
+        Location mine=null;
+        for (int row=0; row<100 && mine==null; row++)
+            for (int col=0; col<100 && mine==null; col++)
+                if (uncovered.getSymbol(row, col)=='M')
+                    mine=new Location(row, col);
+
+        for (int trial=0; trial<2000; trial++) {
+            ConcurrentMinesweeper shared=new ConcurrentMinesweeper(minesweeper);
+            CyclicBarrier start=new CyclicBarrier(5);
+            AtomicInteger made=new AtomicInteger();
+            Location target=mine;
+
+            List<Thread> players=new ArrayList<>();
+            for (int player=0; player<5; player++) {
+                Location move=(player==0) ? last : target; // One player wins while the rest click a mine until the game ends.
+                players.add(new Thread(() -> {
+                    try { start.await();
+                    } catch (Exception e) { throw new IllegalStateException(e); }
+                    do {
+                        if (shared.tryMakeSelection(move)==MoveResult.OK)
+                            made.incrementAndGet();
+                    } while (shared.getGameState()==GameState.IN_PROGRESS);
+                }));
+            }
+            for (Thread player : players)
+                player.start();
+            for (Thread player : players)
+                player.join();
+
+            GameState end=shared.getGameState();
+            assertEquals(end==GameState.LOST, shared.getSymbol(mine.getRow(), mine.getCol())=='X');
+            assertEquals(end, shared.snapshot().getGameState());
+            assertEquals(1, made.get()); // Only the move that ended the game counts.
+            assertEquals(minesweeper.getMoveCount()+1, shared.getMoveCount());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package model.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.GameFile;
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+@Testable
+public class GameFileTest {
+    /**
+     * tests that a game in progress comes back exactly as it was saved, history included
+     */
+    @Test
+    public void roundTripTest() throws MinesweeperException, IOException{
+        Minesweeper minesweeper=new Minesweeper(37, 53, 300, 11L);
+        minesweeper.makeSelection(minesweeper.giveHint());
+        minesweeper.giveHint();
+        for (int row=0; row<37; row++)
+            if (minesweeper.isCovered(new Location(row, 52)))
+                minesweeper.flag(new Location(row, 52));
+
+        Path path=Files.createTempFile("minesweeper", ".msw");
+        try {
+            GameFile.save(minesweeper, path, true);
+            Minesweeper loaded=GameFile.load(path);
+
+            assertEquals(minesweeper.toString(), loaded.toString());
+            assertEquals(minesweeper.getMoveCount(), loaded.getMoveCount());
+            assertEquals(minesweeper.getFlagCount(), loaded.getFlagCount());
+            assertEquals(minesweeper.getHintCount(), loaded.getHintCount());
+            assertEquals(minesweeper.getCoveredSafeCount(), loaded.getCoveredSafeCount());
+            assertEquals(minesweeper.getSeed(), loaded.getSeed());
+
+            minesweeper.uncoverBoard();
+            loaded.uncoverBoard();
+            assertEquals(minesweeper.toString(), loaded.toString());
+
+            while (loaded.canUndo())
+                loaded.undo();
+            assertEquals(0, loaded.getMoveCount());
+            assertEquals(GameState.IN_PROGRESS, loaded.getGameState());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * tests that the counts rebuilt on load match on a board wider than a vector of tiles
+     */
+    @Test
+    public void wideBoardTest() throws MinesweeperException, IOException{
+        Minesweeper minesweeper=new Minesweeper(20, 301, 1500, 3L);
+
+        Path path=Files.createTempFile("minesweeper", ".msw");
+        try {
+            GameFile.save(minesweeper, path, false);
+            Minesweeper loaded=GameFile.load(path);
+
+            minesweeper.uncoverBoard();
+            loaded.uncoverBoard();
+            assertEquals(minesweeper.toString(), loaded.toString());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * tests that a game saved before its first selection still keeps that selection clear once loaded
+     */
+    @Test
+    public void firstClickTest() throws MinesweeperException, IOException{
+        Minesweeper minesweeper=new Minesweeper(9, 9, 72, 5L);
+
+        Path path=Files.createTempFile("minesweeper", ".msw");
+        try {
+            GameFile.save(minesweeper, path, false);
+            Minesweeper loaded=GameFile.load(path);
+
+            minesweeper.makeSelection(new Location(4, 4));
+            loaded.makeSelection(new Location(4, 4));
+            assertEquals(GameState.WON, loaded.getGameState());
+            assertEquals(minesweeper.toString(), loaded.toString());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * tests that a saved game with a tile state that does not exist is rejected
+     */
+    @Test
+    public void corruptFileTest() throws MinesweeperException, IOException{
+        Path path=Files.createTempFile("minesweeper", ".msw");
+        try {
+            GameFile.save(new Minesweeper(9, 9, 10, 1L), path, false);
+            byte[] bytes=Files.readAllBytes(path);
+            bytes[56+3*Long.BYTES-1]=7; // the low bits of the first state word, past the two words of mines
+            Files.write(path, bytes);
+
+            GameFile.load(path);
+            fail();
+        } catch (IOException e) {
+            assertEquals("Corrupt Minesweeper save file: " + path, e.getMessage());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * tests that a saved game with a mine past the end of the board, or with counts that do not
+     * match its tiles, is rejected
+     */
+    @Test
+    public void corruptCountsTest() throws MinesweeperException, IOException{
+        Minesweeper minesweeper=new Minesweeper(9, 9, 10, 1L);
+        minesweeper.flag(new Location(0, 0));
+        assertCorrupt(minesweeper, false, 56+Long.BYTES, (byte)0x80); // tile 127, the top bit of the second word of mines
+        assertCorrupt(minesweeper, false, 43, (byte)2); // the low byte of the flag count
+        assertCorrupt(minesweeper, false, 19, (byte)9); // the low byte of the mine count, wrong once mines are placed
+
+        minesweeper.makeSelection(new Location(4, 4));
+        assertCorrupt(minesweeper, false, 19, (byte)9);
+        assertCorrupt(minesweeper, false, 51, (byte)0); // the low byte of the covered safe count
+        assertCorrupt(minesweeper, false, 39, (byte)0x7F); // the low byte of the revealed count
+    }
+
+    /**
+     * tests that a saved game whose move journal does not fit the file or the board is rejected
+     */
+    @Test
+    public void corruptJournalTest() throws MinesweeperException, IOException{
+        Minesweeper minesweeper=new Minesweeper(9, 9, 10, 1L);
+        minesweeper.makeSelection(new Location(4, 4));
+        int journal=56+(2+4)*Long.BYTES; // past two words of mines and four of states
+
+        assertCorrupt(minesweeper, true, journal, (byte)0x80); // a negative number of entries
+        assertCorrupt(minesweeper, true, journal+4, (byte)0x7F); // more moves than the file holds
+        assertCorrupt(minesweeper, true, journal+12, (byte)0x7F); // an entry far off the board
+    }
+
+    /**
+     * saves the game, changes one byte of the file and checks that loading it fails
+     */
+    private static void assertCorrupt(Minesweeper minesweeper, boolean withJournal, int offset, byte value) throws IOException{
+        Path path=Files.createTempFile("minesweeper", ".msw");
+        try {
+            GameFile.save(minesweeper, path, withJournal);
+            byte[] bytes=Files.readAllBytes(path);
+            bytes[offset]=value;
+            Files.write(path, bytes);
+
+            GameFile.load(path);
+            fail("offset "+offset);
+        } catch (IOException e) {
+            assertEquals("Corrupt Minesweeper save file: " + path, e.getMessage());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * tests that anything but a saved game is rejected
+     */
+    @Test
+    public void badFileTest() throws IOException{
+        Path path=Files.createTempFile("minesweeper", ".msw");
+        try {
+            Files.write(path, new byte[64]);
+            GameFile.load(path);
+            fail();
+        } catch (IOException e) {
+            /* expected */
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package model.tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.platform.commons.annotation.Testable;
+
+import backtracker.Backtracker;
+import backtracker.SearchMetrics;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.MetricsExporter;
+import model.GameMetrics;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MinesweeperObserver;
+
+@Testable
+public class MetricsTest {
+    /**
+     * Keeps everything exported so the tests can look values up by name.
+     */
+    private static class RecordingExporter implements MetricsExporter {
+        private Map<String, Histogram> histograms = new HashMap<>();
+        private Map<String, Long> counters = new HashMap<>();
+
+        @Override
+        public void histogram(String name, Histogram histogram) { histograms.put(name, histogram); }
+
+        @Override
+        public void counter(String name, long value) { counters.put(name, value); }
+    }
+
+    /**
+     * tests that percentiles land in the right bucket
+     */
+    @Test
+    public void histogramTest(){
+        Histogram histogram=new Histogram();
+        for (int value=1; value<=1000; value++)
+            histogram.record(value);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0);
+        assertTrue(Math.abs(histogram.getPercentile(50) - 500) <= 500 / 8);
+        assertTrue(Math.abs(histogram.getPercentile(99) - 990) <= 990 / 8);
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    /**
+     * tests that a game records its selections once metrics are attached
+     */
+    @Test
+    public void gameMetricsTest() throws MinesweeperException{
+        Metrics metrics=new Metrics();
+        Minesweeper minesweeper=new Minesweeper(10, 10, 0);
+        minesweeper.register(new MinesweeperObserver() {
+            @Override
+            public void tileUpdated(Location loc) {}
+        });
+
+        minesweeper.flag(new Location(0, 0)); // Not recorded before metrics are attached.
+        minesweeper.setMetrics(new GameMetrics(metrics));
+        minesweeper.makeSelection(new Location(5, 5));
+
+        RecordingExporter exporter=new RecordingExporter();
+        metrics.export(exporter);
+        assertEquals(1L, (long)exporter.counters.get("move.count"));
+        assertEquals(99, exporter.histograms.get("move.cascade").getMax());
+        assertEquals(99, exporter.histograms.get("move.notifications").getMax());
+        assertEquals(1, exporter.histograms.get("move.nanos").getCount());
+    }
+
+    /**
+     * tests the search metrics and their JMX attributes
+     */
+    @Test
+    public void searchMetricsTest() throws Exception{
+        Metrics metrics=new Metrics();
+        Backtracker backtracker=new Backtracker(false);
+        backtracker.setMetrics(new SearchMetrics(metrics));
+
+        Minesweeper minesweeper=new Minesweeper(3, 3, 0);
+        List<Location> moves=backtracker.solveInPlace(minesweeper);
+
+        RecordingExporter exporter=new RecordingExporter();
+        metrics.export(exporter);
+        assertEquals((long)moves.size(), (long)exporter.counters.get("search.nodes"));
+        assertEquals(9, exporter.histograms.get("search.branching").getMax());
+        assertEquals(moves.size() - 1, exporter.histograms.get("search.maxDepth").getMax());
+
+        ObjectName name=metrics.registerMBean("MetricsTest");
+        try {
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "search.maxDepth.count"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package model.tests;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import org.junit.platform.commons.annotation.Testable;
 
+import model.AsyncObserver;
+import model.BoardChange;
 import model.Location;
 import model.Minesweeper;
 import model.MinesweeperException;
@@ -22,6 +28,28 @@ public class MinesweeperObserverTest {
         }
     }
 
+    public class BatchObserver implements MinesweeperObserver {
+        private int tiles;
+        private int batches;
+        private int games;
+
+        @Override
+        public void tileUpdated(Location loc) {
+            tiles++;
+        }
+
+        @Override
+        public void tilesUpdated(BoardChange changes) {
+            batches++;
+            MinesweeperObserver.super.tilesUpdated(changes);
+        }
+
+        @Override
+        public void gameUpdated(Minesweeper game) {
+            games++;
+        }
+    }
+
     @Test
     public void testObserver() throws MinesweeperException {
 
@@ -38,4 +66,154 @@ public class MinesweeperObserverTest {
         // analyze
         assertEquals(location,location);
     }
+
+    @Test
+    public void testBatchedObserver() throws MinesweeperException {
+
+        // setup
+        BatchObserver observer = new BatchObserver();
+        Minesweeper subject = new Minesweeper(10, 10, 0);
+        subject.register(observer);
+
+        // invoke
+        subject.flag(new Location(0, 0));
+        subject.makeSelection(new Location(5, 5));
+
+        // analyze
+        assertEquals(2, observer.batches);
+        assertEquals(2, observer.games);
+        assertEquals(1 + 99, observer.tiles); // The flag, then the cascade around it.
+    }
+
+    @Test
+    public void testFirstSelectionObserver() throws MinesweeperException {
+
+        // setup
+        BatchObserver observer = new BatchObserver();
+        Minesweeper subject = new Minesweeper(10, 10, 10, 4L);
+        subject.register(observer);
+
+        // invoke
+        subject.makeSelection(new Location(5, 5));
+
+        // analyze
+        assertEquals(1, observer.batches);
+        assertEquals(1, observer.games);
+        assertEquals(subject.getRevealedCount(), observer.tiles); // Placing the mines is not a change of its own.
+    }
+
+    @Test
+    public void testManyObservers() throws MinesweeperException {
+
+        // setup
+        BatchObserver first = new BatchObserver();
+        BatchObserver second = new BatchObserver();
+        Minesweeper subject = new Minesweeper(3, 3, 0);
+        subject.register(first);
+        subject.register(second);
+
+        // invoke
+        subject.flag(new Location(0, 0));
+
+        // analyze
+        assertEquals(1, first.batches);
+        assertEquals(1, second.batches);
+    }
+
+    @Test
+    public void testAsyncObserver() throws MinesweeperException {
+
+        // setup
+        List<Runnable> tasks = new ArrayList<>();
+        BatchObserver observer = new BatchObserver();
+        Minesweeper subject = new Minesweeper(3, 3, 0);
+        subject.register(new AsyncObserver(subject, observer, tasks::add));
+
+        // invoke
+        subject.flag(new Location(0, 0));
+        subject.flag(new Location(0, 0));
+        subject.flag(new Location(1, 1));
+
+        // analyze
+        assertEquals(0, observer.batches);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(1, observer.batches);
+        assertEquals(1, observer.games);
+        assertEquals(2, observer.tiles); // (0, 0) is coalesced into one update.
+    }
+
+    @Test
+    public void testAsyncObserverFailures() throws MinesweeperException {
+
+        // setup
+        List<Runnable> tasks = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        boolean[] reject = { true };
+        BatchObserver observer = new BatchObserver() {
+            @Override
+            public void gameUpdated(Minesweeper game) {
+                super.gameUpdated(game);
+                throw new IllegalStateException("Observer failed.");
+            }
+        };
+        Minesweeper subject = new Minesweeper(3, 3, 0);
+        AsyncObserver async = new AsyncObserver(subject, observer, task -> {
+            if (reject[0])
+                throw new RejectedExecutionException();
+            tasks.add(task);
+        });
+        subject.register(async);
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+
+        // invoke
+        try {
+            Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+            subject.flag(new Location(0, 0)); // Rejected, so the tile waits for the next notification.
+            reject[0] = false;
+            subject.flag(new Location(1, 1));
+            tasks.get(0).run();
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+
+        // analyze
+        assertEquals(1, tasks.size());
+        assertEquals(2, observer.tiles);
+        assertEquals(1, observer.games);
+        assertEquals(1, errors.size());
+
+        async.close();
+        subject.flag(new Location(2, 2));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testThrowingObserver() throws MinesweeperException {
+
+        // setup
+        boolean[] fail = { true };
+        BatchObserver observer = new BatchObserver() {
+            @Override
+            public void tilesUpdated(BoardChange changes) {
+                super.tilesUpdated(changes);
+                if (fail[0])
+                    throw new IllegalStateException("Observer failed.");
+            }
+        };
+        Minesweeper subject = new Minesweeper(3, 3, 0);
+        subject.register(observer);
+
+        // invoke
+        try {
+            subject.flag(new Location(0, 0));
+        } catch (IllegalStateException e) {
+            fail[0] = false;
+        }
+        subject.flag(new Location(1, 1));
+
+        // analyze
+        assertEquals(2, observer.batches);
+        assertEquals(2, observer.tiles); // The failed move's tile is not sent again with the next.
+    }
 }
@@ -0,0 +1,59 @@
+package model.tests;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MinesweeperSolver;
+
+@Testable
+public class MinesweeperSolverTest {
+    /**
+     * tests that a board with no mines is solved in one move
+     * @throws MinesweeperException
+     */
+    @Test
+    public void solveEmptyBoardTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(10, 10, 0);
+
+        for (Location loc : minesweeper.solve())
+            minesweeper.makeSelection(loc);
+        assertEquals(GameState.WON, minesweeper.getGameState());
+    }
+
+    /**
+     * tests that proven safe tiles never hold mines and proven mines always do
+     * @throws MinesweeperException
+     */
+    @Test
+    public void provenTilesTest() throws MinesweeperException{
+        for (long seed = 0 ; seed < 20 ; seed++) {
+            Minesweeper minesweeper=new Minesweeper(16, 16, 40, seed);
+            minesweeper.makeSelection(minesweeper.getPossibleSelections().iterator().next());
+            MinesweeperSolver solver=new MinesweeperSolver(minesweeper);
+
+            for (Location loc : solver.getSafeSelections())
+                assertTrue(minesweeper.getPossibleSelections().contains(loc));
+            for (Location loc : solver.getMines())
+                assertTrue(!minesweeper.getPossibleSelections().contains(loc));
+        }
+    }
+
+    /**
+     * tests that mine probabilities stay between 0 and 1
+     * @throws MinesweeperException
+     */
+    @Test
+    public void probabilityTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(9, 9, 10, 7L);
+        MinesweeperSolver solver=new MinesweeperSolver(minesweeper);
+
+        assertEquals(10 / 81.0, solver.getMineProbability(new Location(4, 4)), 1e-6);
+        assertTrue(solver.getBestGuess() != null);
+    }
+}
@@ -1,13 +1,22 @@
 package model.tests;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
 import org.junit.platform.commons.annotation.Testable;
 
+import backtracker.Backtracker;
+import model.ConcurrentMinesweeper;
 import model.GameState;
 import model.Location;
 import model.Minesweeper;
 import model.MinesweeperException;
+import model.MoveResult;
 
 @Testable
 public class MinesweeperTest {
@@ -114,6 +123,180 @@ public class MinesweeperTest {
 
     }    
 
+    /**
+     * tests that a large blank board opens in one move without recursing
+     * @throws MinesweeperException
+     */
+    @Test
+    public void cascadeTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(4000, 4000, 0);
+        minesweeper.makeSelection(new Location(2000, 2000));
+
+        assertEquals(1, minesweeper.getMoveCount());
+        assertEquals(GameState.WON, minesweeper.getGameState());
+    }
+
+    /**
+     * tests that the adjacent mine count is shown once a tile is uncovered
+     * @throws MinesweeperException
+     */
+    @Test
+    public void adjacentMinesTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(2, 2, 3);
+        Location loc=minesweeper.getPossibleSelections().iterator().next();
+
+        minesweeper.makeSelection(loc);
+        assertEquals('3', minesweeper.getSymbol(loc));
+    }
+
+    /**
+     * tests that the same seed places the same mines
+     * @throws MinesweeperException
+     */
+    @Test
+    public void seedTest() throws MinesweeperException{
+        Minesweeper first=new Minesweeper(20, 20, 80, 42L);
+        Minesweeper second=new Minesweeper(20, 20, 80, 42L);
+
+        first.uncoverBoard();
+        second.uncoverBoard();
+        assertEquals(first.toString(), second.toString());
+    }
+
+    /**
+     * tests mine placement on a board that is almost all mines
+     * @throws MinesweeperException
+     */
+    @Test
+    public void denseBoardTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(100, 100, 9999);
+
+        assertEquals(10000, minesweeper.getPossibleSelections().size()); // any tile until the mines are placed
+        minesweeper.makeSelection(new Location(37, 61));
+        assertEquals(GameState.WON, minesweeper.getGameState());
+    }
+
+    /**
+     * tests the flag, hint and revealed counters
+     * @throws MinesweeperException
+     */
+    @Test
+    public void countersTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(5, 5, 0);
+        Location loc=new Location(0, 0);
+
+        minesweeper.flag(loc);
+        assertEquals(1, minesweeper.getFlagCount());
+        assertEquals(-1, minesweeper.getMinesLeft());
+        minesweeper.flag(loc);
+        assertEquals(0, minesweeper.getFlagCount());
+
+        minesweeper.giveHint();
+        assertEquals(1, minesweeper.getHintCount());
+        assertEquals(25, minesweeper.getCoveredSafeCount());
+
+        minesweeper.makeSelection(new Location(2, 2));
+        assertEquals(1, minesweeper.getMoveCount());
+        assertEquals(25, minesweeper.getRevealedCount());
+        assertEquals(0, minesweeper.getCoveredSafeCount());
+        assertEquals(0, minesweeper.getHintCount());
+    }
+
+    /**
+     * tests that undo reverts a whole cascade and redo replays it
+     * @throws MinesweeperException
+     */
+    @Test
+    public void undoRedoTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(5, 5, 0);
+        String covered=minesweeper.toString();
+
+        minesweeper.flag(new Location(0, 0));
+        minesweeper.makeSelection(new Location(4, 4));
+        String played=minesweeper.toString();
+        assertEquals(1, minesweeper.getCoveredSafeCount());
+
+        minesweeper.undo();
+        assertEquals(0, minesweeper.getMoveCount());
+        assertEquals(25, minesweeper.getCoveredSafeCount());
+        assertEquals(1, minesweeper.getFlagCount());
+        minesweeper.undo();
+        assertEquals(covered, minesweeper.toString());
+        assertEquals(false, minesweeper.canUndo());
+
+        minesweeper.redo();
+        minesweeper.redo();
+        assertEquals(played, minesweeper.toString());
+        assertEquals(1, minesweeper.getMoveCount());
+    }
+
+    /**
+     * tests the backtracker searching a game in place
+     * @throws MinesweeperException
+     */
+    @Test
+    public void solveInPlaceTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(4, 4, 3, 1L);
+        String covered=minesweeper.toString();
+        List<Location> moves=new Backtracker(false).solveInPlace(minesweeper);
+
+        assertEquals(GameState.WON, minesweeper.getGameState());
+        for (int i=0; i<moves.size(); i++)
+            minesweeper.undo();
+        assertEquals(covered, minesweeper.toString());
+    }
+
+    /**
+     * tests that rejected moves report why without throwing
+     */
+    @Test
+    public void tryMakeSelectionTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(2, 2, 0);
+
+        assertEquals(MoveResult.INVALID_LOCATION, minesweeper.tryMakeSelection(new Location(2, 0)));
+        assertEquals(MoveResult.INVALID_LOCATION, minesweeper.tryFlag(new Location(0, -1)));
+        assertEquals(MoveResult.OK, minesweeper.tryFlag(new Location(0, 0)));
+        assertEquals(MoveResult.OK, minesweeper.tryMakeSelection(new Location(0, 1)));
+        assertEquals(MoveResult.UNCOVERED, minesweeper.tryFlag(new Location(0, 1)));
+        assertEquals(MoveResult.UNCOVERED, minesweeper.tryMakeSelection(new Location(0, 1)));
+        assertEquals(MoveResult.OK, minesweeper.tryMakeSelection(new Location(0, 0)));
+        assertEquals(MoveResult.OK, minesweeper.tryMakeSelection(new Location(0, 0)));
+        assertEquals(GameState.WON, minesweeper.getGameState());
+        assertEquals(MoveResult.GAME_OVER, minesweeper.tryMakeSelection(new Location(0, 0)));
+
+        try {
+            minesweeper.makeSelection(new Location(0, 0));
+            fail();
+        } catch (MinesweeperException e) {
+            assertEquals("Invalid move!", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+
+    /**
+     * tests the word-at-a-time queries on a board whose last bitplane word is partial
+     * @throws MinesweeperException
+     */
+    @Test
+    public void bitplaneQueriesTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(37, 41, 300, 7L);
+        minesweeper.makeSelection(minesweeper.getPossibleSelections().iterator().next());
+
+        List<Location> selections=List.copyOf(minesweeper.getPossibleSelections());
+        assertEquals(minesweeper.getCoveredSafeCount(), selections.size());
+        for (Location loc : selections)
+            assertEquals(true, minesweeper.isCovered(loc));
+
+        int hints=minesweeper.getCoveredSafeCount();
+        for (int i=0; i<hints; i++)
+            assertEquals('H', minesweeper.getSymbol(minesweeper.giveHint()));
+        assertEquals(null, minesweeper.giveHint());
+
+        minesweeper.uncoverBoard();
+        assertEquals(-1, minesweeper.toString().indexOf('-'));
+        assertEquals(-1, minesweeper.toString().indexOf('H'));
+    }
+
     @Test
     public void resetTest() throws MinesweeperException{
         Minesweeper minesweeper=new Minesweeper(5, 5, 5);
@@ -123,6 +306,162 @@ public class MinesweeperTest {
         assertEquals(minesweeper.getMoveCount(), 0);
         assertEquals(minesweeper.getGameState(), GameState.IN_PROGRESS);
 
+        minesweeper.makeSelection(new Location(4, 4)); // the new mines are placed clear of it
+        assertEquals(minesweeper.getSymbol(4, 4), ' ');
+    }
+
+    /**
+     * tests that the first selection never hits a mine and opens up its neighbourhood
+     * @throws MinesweeperException
+     */
+    @Test
+    public void safeFirstClickTest() throws MinesweeperException{
+        Random random=new Random(1);
+        for (int seed=0; seed<200; seed++) {
+            Minesweeper minesweeper=new Minesweeper(9, 9, 10, seed);
+            Location loc=new Location(random.nextInt(9), random.nextInt(9));
+
+            minesweeper.makeSelection(loc);
+            assertNotEquals(GameState.LOST, minesweeper.getGameState());
+            assertEquals(' ', minesweeper.getSymbol(loc));
+            assertEquals(10, minesweeper.getMineCount());
+        }
+
+        Minesweeper full=new Minesweeper(3, 3, 8, 2L); // too full to clear the neighbourhood, so only the tile is kept clear
+        full.makeSelection(new Location(1, 1));
+        assertEquals(GameState.WON, full.getGameState());
+        assertEquals('8', full.getSymbol(1, 1));
+    }
+
+    /**
+     * tests that a seeded board follows from the seed and the first selection
+     * @throws MinesweeperException
+     */
+    @Test
+    public void seededFirstClickTest() throws MinesweeperException{
+        Minesweeper first=new Minesweeper(20, 20, 80, 42L);
+        Minesweeper second=new Minesweeper(20, 20, 80, 42L);
+
+        first.makeSelection(new Location(3, 7));
+        second.makeSelection(new Location(3, 7));
+        first.uncoverBoard();
+        second.uncoverBoard();
+        assertEquals(first.toString(), second.toString());
+
+        Minesweeper hinted=new Minesweeper(20, 20, 80, 42L);
+        Location hint=hinted.giveHint(); // a hint before the first selection stands in for it
+        hinted.makeSelection(hint);
+        assertEquals(' ', hinted.getSymbol(hint));
+    }
+
+    /**
+     * tests that copying or sharing a game before its first selection leaves the template without mines,
+     * and that a copy places the template's mines at the same first selection, clear of it
+     * @throws MinesweeperException
+     */
+    @Test
+    public void copyFirstClickTest() throws MinesweeperException{
+        for (int seed=0; seed<50; seed++) {
+            Minesweeper seeded=new Minesweeper(9, 9, 72, seed); // the first selection's neighbourhood holds every safe tile
+            Minesweeper unseeded=new Minesweeper(9, 9, 72);
+
+            for (Minesweeper template : new Minesweeper[] {seeded, unseeded}) {
+                Minesweeper copy=new Minesweeper(template);
+                new ConcurrentMinesweeper(template);
+                copy.makeSelection(new Location(4, 4));
+                template.makeSelection(new Location(4, 4));
+
+                assertEquals(GameState.WON, copy.getGameState());
+                assertEquals(GameState.WON, template.getGameState());
+                assertEquals(template.toString(), copy.toString());
+            }
+        }
+    }
+
+    /**
+     * tests that games copied from one template by several threads at once all place the
+     * template's mines, and that a move on a copy leaves the template as it was
+     * @throws MinesweeperException
+     * @throws InterruptedException
+     */
+    @Test
+    public void parallelCopyTest() throws MinesweeperException, InterruptedException{
+        Minesweeper template=new Minesweeper(40, 40, 300);
+        String covered=template.toString();
+        List<String> boards=new ArrayList<>();
+
+        List<Thread> threads=new ArrayList<>();
+        for (int thread=0; thread<8; thread++) {
+            threads.add(new Thread(() -> {
+                for (int copies=0; copies<20; copies++) {
+                    Minesweeper copy=new Minesweeper(template);
+                    copy.tryMakeSelection(new Location(20, 20));
+                    copy.uncoverBoard();
+                    synchronized (boards) {
+                        boards.add(copy.toString());
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(covered, template.toString());
+        template.makeSelection(new Location(20, 20));
+        template.uncoverBoard();
+        assertEquals(8*20, boards.size());
+        for (String board : boards)
+            assertEquals(template.toString(), board);
+    }
+
+    /**
+     * tests that asking for the moves before the first selection offers every tile and leaves the
+     * mines to that selection, which still keeps its neighbourhood clear
+     * @throws MinesweeperException
+     */
+    @Test
+    public void unplacedSelectionsTest() throws MinesweeperException{
+        for (int seed=0; seed<50; seed++) {
+            Minesweeper minesweeper=new Minesweeper(9, 9, 72, seed); // the first selection's neighbourhood holds every safe tile
+
+            assertEquals(81, minesweeper.getPossibleSelections().size());
+            assertEquals(81, minesweeper.getMoves().size());
+            minesweeper.getSuccessors();
+            minesweeper.makeSelection(new Location(4, 4));
+            assertEquals(GameState.WON, minesweeper.getGameState());
+        }
+    }
+
+    /**
+     * tests that uncovering the board before the first selection places the mines, so every safe tile is shown
+     * @throws MinesweeperException
+     */
+    @Test
+    public void unplacedUncoverTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(9, 9, 40, 1L);
+        minesweeper.uncoverBoard();
+
+        assertEquals(0, minesweeper.getCoveredSafeCount());
+        assertEquals(0, minesweeper.getPossibleSelections().size()); // placed, so no longer every tile
+    }
+
+    /**
+     * tests that a hint before the first selection never lands on a flag
+     * @throws MinesweeperException
+     */
+    @Test
+    public void unplacedHintTest() throws MinesweeperException{
+        for (int seed=0; seed<20; seed++) {
+            Minesweeper minesweeper=new Minesweeper(3, 3, 1, seed);
+            for (int row=0; row<3; row++)
+                for (int col=0; col<3; col++)
+                    if (row!=2 || col!=2)
+                        minesweeper.flag(new Location(row, col));
+
+            assertEquals(new Location(2, 2), minesweeper.giveHint());
+        }
     }
 
     @Test
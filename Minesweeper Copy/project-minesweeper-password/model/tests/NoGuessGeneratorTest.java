@@ -0,0 +1,129 @@
+package model.tests;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertThrows;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MinesweeperSolver;
+import model.MoveResult;
+import model.NoGuessGenerator;
+import model.NoGuessPool;
+
+@Testable
+public class NoGuessGeneratorTest {
+    /**
+     * plays a board by logic alone, using the solver and the mine count once the solver runs dry
+     * @return true if the board was won without a guess
+     */
+    private static boolean playByLogic(Minesweeper minesweeper, Location firstClick) throws MinesweeperException{
+        minesweeper.makeSelection(firstClick);
+
+        while (minesweeper.getGameState()==GameState.IN_PROGRESS) {
+            MinesweeperSolver solver=new MinesweeperSolver(minesweeper);
+            Collection<Location> safe=solver.getSafeSelections();
+            Collection<Location> mines=solver.getMines();
+
+            if (safe.isEmpty() && mines.size()==minesweeper.getMineCount()) {
+                for (int row=0; row<minesweeper.getRows(); row++) // every tile left covered is safe
+                    for (int col=0; col<minesweeper.getCols(); col++)
+                        if (minesweeper.getSymbol(row, col)=='-' && !mines.contains(new Location(row, col)))
+                            safe.add(new Location(row, col));
+            }
+            if (safe.isEmpty())
+                return false;
+            for (Location loc : safe)
+                assertTrue(minesweeper.tryMakeSelection(loc)!=MoveResult.INVALID_LOCATION);
+        }
+        return minesweeper.getGameState()==GameState.WON;
+    }
+
+    /**
+     * tests that generated boards are won from the first click without ever guessing
+     */
+    @Test
+    public void solvableTest() throws MinesweeperException{
+        NoGuessGenerator generator=new NoGuessGenerator(16, 30, 99, 7L);
+        Location firstClick=new Location(8, 15);
+
+        for (int board=0; board<10; board++) {
+            Minesweeper minesweeper=generator.generate(firstClick);
+            assertEquals(99, minesweeper.getMineCount());
+            assertFalse(minesweeper.getSeed().isPresent());
+            assertTrue(playByLogic(minesweeper, firstClick));
+        }
+    }
+
+    /**
+     * tests that a large board is generated and that its first click opens a cascade
+     */
+    @Test
+    public void largeBoardTest() throws MinesweeperException{
+        NoGuessGenerator generator=new NoGuessGenerator(300, 300, 18000, 11L);
+        Minesweeper minesweeper=generator.generate(new Location(0, 0));
+
+        minesweeper.makeSelection(new Location(0, 0));
+        assertEquals(GameState.IN_PROGRESS, minesweeper.getGameState());
+        assertTrue(minesweeper.getRevealedCount()>=4);
+    }
+
+    /**
+     * tests that the pool hands out boards ready to play from its first click
+     */
+    @Test
+    public void poolTest() throws MinesweeperException, InterruptedException{
+        NoGuessGenerator generator=new NoGuessGenerator(9, 9, 10, 3L);
+        Location firstClick=new Location(4, 4);
+
+        try (NoGuessPool pool=new NoGuessPool(generator, firstClick, 2)) {
+            for (int board=0; board<4; board++)
+                assertTrue(playByLogic(pool.take(), firstClick));
+        }
+    }
+
+    /**
+     * tests that boards which cannot keep the first click clear are refused
+     */
+    @Test
+    public void invalidTest() throws MinesweeperException{
+        NoGuessGenerator generator=new NoGuessGenerator(3, 3, 1, 1L);
+        assertThrows(MinesweeperException.class, () -> generator.generate(new Location(1, 1)));
+        assertThrows(MinesweeperException.class, () -> generator.generate(new Location(3, 0)));
+        assertThrows(MinesweeperException.class, () -> new NoGuessPool(generator, new Location(1, 1), 1));
+        assertThrows(MinesweeperException.class, () -> new NoGuessGenerator(0, 3, 1, 1L));
+
+        Minesweeper corner=generator.generate(new Location(0, 0));
+        assertTrue(playByLogic(corner, new Location(0, 0)));
+    }
+
+    /**
+     * tests that boards no repair can make solvable end in an exception rather than hanging,
+     * and that crowded boards with little room to repair in still finish
+     */
+    @Test(timeout=10000)
+    public void unsolvableTest() throws MinesweeperException{
+        ForkJoinPool pool=new ForkJoinPool(1);
+        try {
+            NoGuessGenerator tiny=new NoGuessGenerator(2, 3, 1, 0L, pool);
+            assertThrows(MinesweeperException.class, () -> tiny.generate(new Location(0, 0)));
+            try (NoGuessPool boards=new NoGuessPool(tiny, new Location(0, 0), 1)) { // the filler gives up rather than spin
+                assertThrows(MinesweeperException.class, () -> boards.take());
+                assertThrows(MinesweeperException.class, () -> boards.poll());
+            }
+
+            NoGuessGenerator crowded=new NoGuessGenerator(5, 5, 10, 0L, pool); // used to hang when restarting
+            assertTrue(playByLogic(crowded.generate(new Location(0, 0)), new Location(0, 0)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
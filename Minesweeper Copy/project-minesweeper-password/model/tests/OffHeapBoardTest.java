@@ -0,0 +1,94 @@
+package model.tests;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.BoardArena;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+@Testable
+public class OffHeapBoardTest {
+    /**
+     * @return the number of files this process has open, or -1 where the OS does not say
+     */
+    private static long openFiles() throws IOException{
+        Path descriptors=Path.of("/proc/self/fd");
+        if (!Files.isDirectory(descriptors))
+            return -1;
+        try (Stream<Path> files=Files.list(descriptors)) {
+            return files.count();
+        }
+    }
+
+    /**
+     * tests that boards kept off the heap, in direct memory or a mapped file, play like heap boards,
+     * and that they fail once their arena is closed
+     * @throws MinesweeperException
+     */
+    @Test
+    public void offHeapTest() throws MinesweeperException, IOException{
+        Path directory=Files.createTempDirectory("boards");
+        List<Minesweeper> closed=new ArrayList<>();
+        try (BoardArena direct=BoardArena.ofDirect(); BoardArena mapped=BoardArena.ofMapped(directory)) {
+            for (BoardArena arena : List.of(direct, mapped)) {
+                Minesweeper heap=new Minesweeper(50, 70, 500, 9L);
+                Minesweeper minesweeper=new Minesweeper(50, 70, 500, 9L, arena);
+                Location loc=heap.giveHint();
+                assertEquals(loc, minesweeper.giveHint());
+
+                heap.makeSelection(loc);
+                minesweeper.makeSelection(loc);
+                assertEquals(heap.toString(), minesweeper.toString());
+
+                Minesweeper copy=new Minesweeper(minesweeper);
+                copy.uncoverBoard();
+                assertEquals(-1, copy.toString().indexOf('-'));
+                assertEquals(heap.toString(), minesweeper.toString());
+
+                minesweeper.reset();
+                assertEquals(50*70-500, minesweeper.getCoveredSafeCount());
+
+                long open=openFiles();
+                for (int i=0; i<100; i++)
+                    closed.add(new Minesweeper(copy));
+                assertEquals(open, openFiles()); // the boards share memory the arena already holds
+            }
+        }
+
+        try (DirectoryStream<Path> files=Files.newDirectoryStream(directory)) {
+            assertEquals(false, files.iterator().hasNext());
+        }
+        Files.delete(directory);
+
+        for (Minesweeper minesweeper : closed) {
+            try {
+                minesweeper.getSymbol(0, 0);
+                fail();
+            } catch (IllegalStateException e) {
+                /* expected */
+            }
+        }
+    }
+
+    /**
+     * tests that a closed arena cannot allocate any more boards
+     */
+    @Test(expected=IllegalStateException.class)
+    public void closedArenaTest() throws MinesweeperException{
+        BoardArena arena=BoardArena.ofDirect();
+        arena.close();
+        new Minesweeper(5, 5, 5, 1L, arena);
+    }
+}
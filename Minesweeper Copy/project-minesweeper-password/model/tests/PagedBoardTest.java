@@ -0,0 +1,103 @@
+package model.tests;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+@Testable
+public class PagedBoardTest {
+    private static final int COLS=40;
+    private static final int PAGE=1024; // tiles in a board page, and in a bitplane page
+
+    /**
+     * @return a game with its mines placed and the top left corner opened
+     */
+    private static Minesweeper started() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(40, COLS, 300, 9L);
+        minesweeper.makeSelection(new Location(0, 0));
+        return minesweeper;
+    }
+
+    private static Location at(int index) { return new Location(index/COLS, index%COLS); }
+
+    /**
+     * flags every covered tile from PAGE-8 to PAGE+7, either side of the first page boundary
+     */
+    private static void flagAcross(Minesweeper minesweeper) throws MinesweeperException{
+        for (int index=PAGE-8; index<PAGE+8; index++)
+            if (minesweeper.isCovered(at(index)))
+                minesweeper.flag(at(index));
+    }
+
+    /**
+     * selects every tile from PAGE-8 to PAGE+7 until the game ends
+     */
+    private static void selectAcross(Minesweeper minesweeper){
+        for (int index=PAGE-8; index<PAGE+8 && minesweeper.getGameState()==GameState.IN_PROGRESS; index++)
+            minesweeper.tryMakeSelection(at(index));
+    }
+
+    /**
+     * tests that a copy and its template, each changing tiles on both sides of a page boundary
+     * they share, each see only their own changes, whichever of them writes first
+     */
+    @Test
+    public void copyOnWriteTest() throws MinesweeperException{
+        for (boolean templateFirst : new boolean[] {true, false}) {
+            Minesweeper template=started();
+            Minesweeper copy=new Minesweeper(template);
+
+            if (templateFirst) {
+                flagAcross(template);
+                selectAcross(copy);
+            } else {
+                selectAcross(copy);
+                flagAcross(template);
+            }
+
+            // the same changes made to games that never shared a page:
+            Minesweeper flagged=started();
+            flagAcross(flagged);
+            Minesweeper selected=started();
+            selectAcross(selected);
+
+            assertEquals(flagged.toString(), template.toString());
+            assertEquals(flagged.getFlagCount(), template.getFlagCount());
+            assertEquals(selected.toString(), copy.toString());
+            assertEquals(selected.getCoveredSafeCount(), copy.getCoveredSafeCount());
+            assertEquals(0, copy.getFlagCount());
+            assertNotEquals(template.toString(), copy.toString());
+        }
+    }
+
+    /**
+     * tests that a copy of a copy stays apart from both games it was copied through, and they from it
+     */
+    @Test
+    public void copyOfCopyTest() throws MinesweeperException{
+        Minesweeper template=started();
+        String untouched=template.toString();
+        Minesweeper copy=new Minesweeper(template);
+        flagAcross(copy);
+        String flagged=copy.toString();
+        Minesweeper second=new Minesweeper(copy);
+
+        selectAcross(second); // unflags the copy's flags before selecting them
+        flagAcross(second);
+
+        Minesweeper replay=started();
+        flagAcross(replay);
+        selectAcross(replay);
+        flagAcross(replay);
+
+        assertEquals(untouched, template.toString());
+        assertEquals(flagged, copy.toString());
+        assertEquals(replay.toString(), second.toString());
+    }
+}
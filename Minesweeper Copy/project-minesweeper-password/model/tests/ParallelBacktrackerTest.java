@@ -0,0 +1,115 @@
+package model.tests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.platform.commons.annotation.Testable;
+
+import backtracker.Backtracker;
+import backtracker.Configuration;
+import backtracker.ParallelBacktracker;
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+@Testable
+public class ParallelBacktrackerTest {
+    /**
+     * picks numbers off a list, in list order, until they add up to a target
+     */
+    private static class Subset implements Configuration {
+        private final int[] numbers;
+        private final int target;
+        private final List<Integer> picked; // indices into numbers, ascending
+        private final int sum;
+
+        Subset(int[] numbers, int target) {
+            this(numbers, target, List.of(), 0);
+        }
+
+        private Subset(int[] numbers, int target, List<Integer> picked, int sum) {
+            this.numbers=numbers;
+            this.target=target;
+            this.picked=picked;
+            this.sum=sum;
+        }
+
+        private int first() { return picked.isEmpty() ? 0 : picked.get(picked.size()-1)+1; } // the first number not passed over yet
+
+        @Override
+        public Collection<Configuration> getSuccessors() {
+            List<Configuration> successors=new ArrayList<>();
+            for (int next=first(); next<numbers.length; next++) {
+                List<Integer> with=new ArrayList<>(picked);
+                with.add(next);
+                successors.add(new Subset(numbers, target, with, sum+numbers[next]));
+            }
+            return successors;
+        }
+
+        @Override
+        public boolean isValid() { return sum<=target; }
+
+        @Override
+        public boolean isGoal() { return sum==target; }
+    }
+
+    private static final int[] POWERS={1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048}; // every total has one subset
+
+    /**
+     * tests that the parallel search finds the one solution the sequential search finds
+     */
+    @Test
+    public void sameSolutionTest(){
+        ForkJoinPool pool=new ForkJoinPool(4);
+        try {
+            ParallelBacktracker parallel=new ParallelBacktracker(pool, 4, Integer.MAX_VALUE);
+            for (int target : new int[] {0, 1, 1000, 2730, 4095}) {
+                Subset expected=(Subset)new Backtracker(false).solve(new Subset(POWERS, target));
+                Subset found=(Subset)parallel.solve(new Subset(POWERS, target));
+
+                assertEquals(expected.picked, found.picked);
+                assertEquals(target, found.sum);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * tests that both searches give up on a configuration with no solution
+     */
+    @Test
+    public void noSolutionTest(){
+        ForkJoinPool pool=new ForkJoinPool(4);
+        try {
+            assertNull(new Backtracker(false).solve(new Subset(POWERS, 4096)));
+            assertNull(new ParallelBacktracker(pool, 4, Integer.MAX_VALUE).solve(new Subset(POWERS, 4096)));
+            assertNull(new ParallelBacktracker(pool, 4, 2).solve(new Subset(POWERS, 7))); // needs three numbers
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * tests that the parallel search wins a game the sequential search wins, on the same board
+     * @throws MinesweeperException
+     */
+    @Test
+    public void minesweeperTest() throws MinesweeperException{
+        Minesweeper minesweeper=new Minesweeper(5, 5, 6, 3L);
+        minesweeper.makeSelection(new Location(0, 0));
+
+        Minesweeper expected=(Minesweeper)new Backtracker(false).solve(new Minesweeper(minesweeper));
+        Minesweeper found=(Minesweeper)new ParallelBacktracker().solve(new Minesweeper(minesweeper));
+
+        assertEquals(GameState.WON, found.getGameState());
+        assertEquals(expected.toString(), found.toString());
+    }
+}
@@ -0,0 +1,57 @@
+package model.tests;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.MinesweeperException;
+import sim.RandomStrategy;
+import sim.Simulation;
+import sim.SimulationStats;
+import sim.SolverStrategy;
+
+@Testable
+public class SimulationTest {
+    /**
+     * tests that a board with no mines is always won in one move
+     */
+    @Test
+    public void emptyBoardTest() throws MinesweeperException{
+        StringWriter csv=new StringWriter();
+        SimulationStats stats=new Simulation(5, 5, 0, new SolverStrategy(), 1).run(1000, csv);
+
+        assertEquals(1000, stats.getGames());
+        assertEquals(1000, stats.getWins());
+        assertEquals(1.0, stats.getMeanMoves(), 0);
+        assertEquals(1000, csv.toString().split("\n").length);
+        assertTrue(csv.toString().contains(",WON,1,25,1,"));
+    }
+
+    /**
+     * tests that a seeded simulation repeats exactly
+     */
+    @Test
+    public void seedTest() throws MinesweeperException{
+        SimulationStats first=new Simulation(9, 9, 10, new RandomStrategy(), 7).run(2000, null);
+        SimulationStats second=new Simulation(9, 9, 10, new RandomStrategy(), 7).run(2000, null);
+
+        assertEquals(first.getWins(), second.getWins());
+        assertEquals(first.getMeanMoves(), second.getMeanMoves(), 1e-9);
+    }
+
+    /**
+     * tests that the solver beats random play and its interval holds the win rate
+     */
+    @Test
+    public void winRateTest() throws MinesweeperException{
+        SimulationStats solver=new Simulation(9, 9, 10, new SolverStrategy(), 3).run(2000, null);
+        SimulationStats random=new Simulation(9, 9, 10, new RandomStrategy(), 3).run(2000, null);
+        double[] interval=solver.getWinRateInterval();
+
+        assertTrue(solver.getWinRate() > random.getWinRate());
+        assertTrue(interval[0] < solver.getWinRate() && solver.getWinRate() < interval[1]);
+    }
+}
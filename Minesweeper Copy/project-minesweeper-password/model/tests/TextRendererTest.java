@@ -0,0 +1,43 @@
+package model.tests;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import org.junit.platform.commons.annotation.Testable;
+
+import model.Location;
+import model.Minesweeper;
+import model.TextRenderer;
+
+@Testable
+public class TextRendererTest {
+    /**
+     * tests rendering windows and only the rows that changed
+     */
+    @Test
+    public void textRendererTest() throws Exception{
+        Minesweeper minesweeper=new Minesweeper(3, 4, 0);
+        TextRenderer renderer=new TextRenderer(minesweeper);
+        minesweeper.register(renderer);
+
+        StringBuilder frame=new StringBuilder();
+        renderer.render(frame, 1, 1, 5, 2);
+        assertEquals("- - \n- - ", frame.toString());
+        assertEquals(true, renderer.isChanged(0));
+
+        frame.setLength(0);
+        assertEquals(1, renderer.renderChanged(frame, 0, 0, 3, 4));
+        assertEquals("\033[1;1H- - - - ", frame.toString());
+
+        minesweeper.flag(new Location(2, 3));
+        frame.setLength(0);
+        assertEquals(1, renderer.renderChanged(frame, 0, 0, 3, 4));
+        assertEquals("\033[3;1H- - - F ", frame.toString());
+        assertEquals(0, renderer.renderChanged(frame, 0, 0, 3, 4));
+
+        StringWriter writer=new StringWriter();
+        new TextRenderer(minesweeper).render(writer);
+        assertEquals(minesweeper.toString(), writer.toString());
+    }
+}
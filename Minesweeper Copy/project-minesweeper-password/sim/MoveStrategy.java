@@ -0,0 +1,22 @@
+package sim;
+
+import java.util.Collection;
+import java.util.random.RandomGenerator;
+
+import model.Location;
+import model.Minesweeper;
+
+/**
+ * Chooses the moves a simulated player makes. A strategy may only look at what a player could
+ * see: the symbols, counters and state of the game. Strategies are shared by every thread of a
+ * simulation, so they must not keep state between calls, and should draw any randomness from
+ * the generator they are given so that seeded simulations repeat exactly.
+ */
+public interface MoveStrategy {
+    /**
+     * @param game A game in progress.
+     * @param random The game's own random generator.
+     * @return The selections to make next, in order, or an empty collection to give up.
+     */
+    Collection<Location> nextMoves(Minesweeper game, RandomGenerator random);
+}
@@ -0,0 +1,31 @@
+package sim;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+
+/**
+ * Selects covered tiles at random, the baseline every other strategy should beat.
+ */
+public class RandomStrategy implements MoveStrategy {
+    private static final char COVERED = '-';
+
+    @Override
+    public Collection<Location> nextMoves(Minesweeper game, RandomGenerator random) {
+        int rows = game.getRows();
+        int cols = game.getCols();
+
+        try {
+            while (true) {
+                int row = random.nextInt(rows);
+                int col = random.nextInt(cols);
+                if (game.getSymbol(row, col) == COVERED)
+                    return List.of(new Location(row, col));
+            }
+        } catch (MinesweeperException e) { return List.of(); }
+    }
+}
@@ -0,0 +1,222 @@
+package sim;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import model.GameState;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MoveResult;
+
+/**
+ * Plays seeded games of one board size and density across a ForkJoinPool, with a MoveStrategy
+ * choosing the moves. Games are split into chunks that are played sequentially on one worker;
+ * each chunk streams a CSV row per game and merges its totals into the running statistics,
+ * which can be read while the simulation runs.
+ *
+ * Game i is played on a board and with a strategy generator seeded from the simulation's seed
+ * and i, so a simulation repeats exactly however the games are spread across threads.
+ */
+public class Simulation {
+    public static final String CSV_HEADER = "game,seed,result,moves,revealed,cascades,nanos";
+    private static final int CHUNK = 256;
+
+    private int rows;
+    private int cols;
+    private int mines;
+    private MoveStrategy strategy;
+    private long seed;
+    private ForkJoinPool pool;
+
+    private SimulationStats stats = new SimulationStats(); // Guarded by itself.
+    private Appendable out; // Guarded by itself.
+
+    /**
+     * Creates a simulation on the common pool.
+     * @param rows The number of rows on each board.
+     * @param cols The number of columns on each board.
+     * @param mines The number of mines on each board.
+     * @param strategy Chooses every move.
+     * @param seed The seed every game's seed is derived from.
+     */
+    public Simulation(int rows, int cols, int mines, MoveStrategy strategy, long seed) {
+        this(rows, cols, mines, strategy, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param rows The number of rows on each board.
+     * @param cols The number of columns on each board.
+     * @param mines The number of mines on each board.
+     * @param strategy Chooses every move.
+     * @param seed The seed every game's seed is derived from.
+     * @param pool The pool the games are played on.
+     */
+    public Simulation(int rows, int cols, int mines, MoveStrategy strategy, long seed, ForkJoinPool pool) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.strategy = strategy;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays games and waits for them to finish.
+     * @param games The number of games to play.
+     * @param out Where a CSV row is written per game (without a header, in no particular order), or null.
+     * @return The statistics of every game this simulation has played.
+     * @throws MinesweeperException If the board size or mine count is invalid.
+     */
+    public SimulationStats run(long games, Appendable out) throws MinesweeperException {
+        new Minesweeper(rows, cols, mines, seed); // Fail fast on an invalid board.
+        this.out = out;
+        pool.invoke(new Games(0, games));
+        return getStats();
+    }
+
+    /**
+     * @return A snapshot of the statistics so far, safe to call while games are being played.
+     */
+    public SimulationStats getStats() {
+        synchronized (stats) {
+            return stats.snapshot();
+        }
+    }
+
+    /**
+     * @return The seed of game i, spread so consecutive games share no structure.
+     */
+    long seedOf(long game) {
+        return new SplittableRandom(seed ^ game * 0x9E3779B97F4A7C15L).nextLong();
+    }
+
+    /**
+     * A range of games, split in half until it is small enough to play directly.
+     */
+    private class Games extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private long from;
+        private long to;
+
+        Games(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new Games(from, middle), new Games(middle, to));
+                return;
+            }
+
+            SimulationStats chunk = new SimulationStats();
+            StringBuilder lines = (out != null) ? new StringBuilder() : null;
+            for (long game = from ; game < to ; game++)
+                play(game, chunk, lines);
+
+            synchronized (stats) {
+                stats.merge(chunk);
+            }
+
+            if (lines != null) {
+                synchronized (out) {
+                    try { out.append(lines);
+                    } catch (IOException e) { throw new UncheckedIOException(e); }
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays one game to the end, or until the strategy gives up or makes an invalid move.
+     */
+    private void play(long index, SimulationStats chunk, StringBuilder csv) {
+        long gameSeed = seedOf(index);
+        long started = System.nanoTime();
+        Minesweeper game;
+
+        try { game = new Minesweeper(rows, cols, mines, gameSeed);
+        } catch (MinesweeperException e) { return; } // Checked once in run.
+
+        SplittableRandom random = new SplittableRandom(~gameSeed);
+        int cascades = 0;
+        boolean playing = true;
+
+        while (playing && game.getGameState() == GameState.IN_PROGRESS) {
+            playing = false;
+            for (Location move : strategy.nextMoves(game, random)) {
+                if (game.getGameState() != GameState.IN_PROGRESS)
+                    break;
+
+                int revealed = game.getRevealedCount();
+                if (game.tryMakeSelection(move) != MoveResult.OK)
+                    continue; // Already uncovered by an earlier move in the batch.
+
+                playing = true;
+                if (game.getRevealedCount() - revealed > 1)
+                    cascades++;
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        chunk.add(game.getGameState() == GameState.WON, game.getMoveCount(), cascades, elapsed);
+
+        if (csv != null)
+            csv.append(index).append(',').append(gameSeed).append(',').append(game.getGameState()).append(',')
+                .append(game.getMoveCount()).append(',').append(game.getRevealedCount()).append(',')
+                .append(cascades).append(',').append(elapsed).append('\n');
+    }
+
+    /**
+     * Runs a simulation from the command line, e.g.
+     * --rows=16 --cols=30 --mines=99 --games=100000 --strategy=solver --seed=1 --csv=games.csv
+     */
+    public static void main(String[] args) throws MinesweeperException, IOException {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            params.put(pair[0], (pair.length > 1) ? pair[1] : "");
+        }
+
+        int rows = Integer.parseInt(params.getOrDefault("rows", "9"));
+        int cols = Integer.parseInt(params.getOrDefault("cols", "9"));
+        int mines = Integer.parseInt(params.getOrDefault("mines", "10"));
+        long games = Long.parseLong(params.getOrDefault("games", "100000"));
+        long seed = Long.parseLong(params.getOrDefault("seed", "1"));
+        MoveStrategy strategy = params.getOrDefault("strategy", "solver").equals("random")
+            ? new RandomStrategy() : new SolverStrategy();
+
+        Writer csv = null;
+        if (params.containsKey("csv")) { // An empty path writes the rows to stdout.
+            csv = params.get("csv").isEmpty()
+                ? new BufferedWriter(new OutputStreamWriter(System.out))
+                : Files.newBufferedWriter(Path.of(params.get("csv")));
+            csv.write(CSV_HEADER);
+            csv.write('\n');
+        }
+
+        Simulation simulation = new Simulation(rows, cols, mines, strategy, seed);
+        long started = System.nanoTime();
+        SimulationStats stats = simulation.run(games, csv);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        if (csv != null)
+            csv.close();
+        System.err.println(stats);
+        System.err.printf("%.0f games/s%n", stats.getGames() / seconds);
+    }
+}
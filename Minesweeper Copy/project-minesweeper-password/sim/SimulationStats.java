@@ -0,0 +1,138 @@
+package sim;
+
+/**
+ * Running totals over simulated games: wins, and the mean and variance of moves, cascades and
+ * time per game (kept with Welford's method, so they can be merged without storing any games).
+ * Confidence intervals are at 95%.
+ */
+public class SimulationStats {
+    private static final double Z = 1.959964; // Standard normal quantile for 95%.
+
+    private long games;
+    private long wins;
+    private Moments moves = new Moments();
+    private Moments cascades = new Moments();
+    private Moments nanos = new Moments();
+
+    /**
+     * Mean and sum of squared deviations of one column.
+     */
+    private static class Moments {
+        private double mean;
+        private double squares;
+
+        void add(long games, double value) {
+            double delta = value - mean;
+            mean += delta / games;
+            squares += delta * (value - mean);
+        }
+
+        void merge(long games, long otherGames, Moments other) {
+            long total = games + otherGames;
+            double delta = other.mean - mean;
+            mean += delta * otherGames / total;
+            squares += other.squares + delta * delta * games * otherGames / total;
+        }
+
+        double halfWidth(long games) {
+            return (games < 2) ? Double.NaN : Z * Math.sqrt(squares / (games - 1) / games);
+        }
+    }
+
+    /**
+     * Adds one game.
+     */
+    void add(boolean won, int moveCount, int cascadeCount, long elapsed) {
+        games++;
+        if (won)
+            wins++;
+        moves.add(games, moveCount);
+        cascades.add(games, cascadeCount);
+        nanos.add(games, elapsed);
+    }
+
+    /**
+     * Adds every game counted by other.
+     */
+    void merge(SimulationStats other) {
+        if (other.games == 0)
+            return;
+
+        moves.merge(games, other.games, other.moves);
+        cascades.merge(games, other.games, other.cascades);
+        nanos.merge(games, other.games, other.nanos);
+        games += other.games;
+        wins += other.wins;
+    }
+
+    /**
+     * @return A copy of these totals.
+     */
+    public SimulationStats snapshot() {
+        SimulationStats copy = new SimulationStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * @return The number of games played.
+     */
+    public long getGames() { return games; }
+
+    /**
+     * @return The number of games won.
+     */
+    public long getWins() { return wins; }
+
+    /**
+     * @return The fraction of games won.
+     */
+    public double getWinRate() { return (games == 0) ? Double.NaN : (double)wins / games; }
+
+    /**
+     * @return The Wilson score interval of the win rate, as {low, high}.
+     */
+    public double[] getWinRateInterval() {
+        if (games == 0)
+            return new double[] {0, 1};
+
+        double p = getWinRate();
+        double z2 = Z * Z / games;
+        double center = (p + z2 / 2) / (1 + z2);
+        double half = Z * Math.sqrt(p * (1 - p) / games + z2 / games / 4) / (1 + z2);
+        return new double[] {Math.max(0, center - half), Math.min(1, center + half)};
+    }
+
+    /**
+     * @return The mean number of selections per game.
+     */
+    public double getMeanMoves() { return moves.mean; }
+
+    /**
+     * @return The half-width of the confidence interval of the mean number of selections.
+     */
+    public double getMovesHalfWidth() { return moves.halfWidth(games); }
+
+    /**
+     * @return The mean number of selections per game that uncovered more than one tile.
+     */
+    public double getMeanCascades() { return cascades.mean; }
+
+    /**
+     * @return The mean time to play a game, in nanoseconds.
+     */
+    public double getMeanNanos() { return nanos.mean; }
+
+    /**
+     * @return The half-width of the confidence interval of the mean time, in nanoseconds.
+     */
+    public double getNanosHalfWidth() { return nanos.halfWidth(games); }
+
+    @Override
+    public String toString() {
+        double[] interval = getWinRateInterval();
+        return String.format("games: %d, win rate: %.4f [%.4f, %.4f], moves: %.2f +/- %.2f, cascades: %.2f, time: %.1f +/- %.1f us",
+            games, getWinRate(), interval[0], interval[1], getMeanMoves(), getMovesHalfWidth(),
+            getMeanCascades(), getMeanNanos() / 1000, getNanosHalfWidth() / 1000);
+    }
+}
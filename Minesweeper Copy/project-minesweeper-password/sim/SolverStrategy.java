@@ -0,0 +1,25 @@
+package sim;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperSolver;
+
+/**
+ * Plays every tile MinesweeperSolver proves safe, and its least likely mine when none are.
+ */
+public class SolverStrategy implements MoveStrategy {
+    @Override
+    public Collection<Location> nextMoves(Minesweeper game, RandomGenerator random) {
+        MinesweeperSolver solver = new MinesweeperSolver(game);
+        Collection<Location> safe = solver.getSafeSelections();
+        if (!safe.isEmpty())
+            return safe;
+
+        Location guess = solver.getBestGuess();
+        return (guess == null) ? List.of() : List.of(guess);
+    }
+}
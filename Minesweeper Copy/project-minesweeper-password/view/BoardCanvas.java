@@ -0,0 +1,218 @@
+package view;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import model.BoardChange;
+import model.Location;
+import model.Minesweeper;
+import model.MinesweeperException;
+import model.MinesweeperObserver;
+
+/**
+ * Draws a Minesweeper board onto a single Canvas, using the GameGUI images as sprites.
+ * Only the tiles inside the viewport are ever drawn, and a move only repaints the tiles it changed,
+ * so the cost of a frame depends on the size of the window rather than the size of the board.
+ * Scrolling pans the viewport and Ctrl + scrolling zooms around the cursor.
+ */
+public class BoardCanvas implements MinesweeperObserver {
+    public static final int TILE_SIZE = 24;
+    private static final double MIN_SCALE = 0.25;
+    private static final double MAX_SCALE = 4;
+    private static final double FONT_SIZE = 11;
+
+    private Canvas canvas;
+    private Minesweeper game;
+    private int rows;
+    private int cols;
+    private Label moveCount;
+    private Label gameStatus;
+
+    private double scale = 1;
+    private double offsetX; // Board pixels scrolled off the left of the viewport.
+    private double offsetY; // Board pixels scrolled off the top of the viewport.
+
+    /**
+     * Creates a BoardCanvas and draws the board.
+     * @param game The observed Minesweeper game.
+     * @param width The width of the viewport in pixels.
+     * @param height The height of the viewport in pixels.
+     */
+    public BoardCanvas(Minesweeper game, double width, double height, Label moveCount, Label gameStatus) {
+        this.game = game;
+        this.rows = game.getRows();
+        this.cols = game.getCols();
+        this.moveCount = moveCount;
+        this.gameStatus = gameStatus;
+
+        canvas = new Canvas(width, height);
+        canvas.setOnMouseClicked(this::clicked);
+        canvas.setOnScroll(this::scrolled);
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setImageSmoothing(false);
+        setScale(1);
+        redraw();
+    }
+
+    /**
+     * @return The Canvas the board is drawn on.
+     */
+    public Canvas getCanvas() { return canvas; }
+
+    /**
+     * @return The width and height of a tile on screen, in pixels.
+     */
+    private double tileSize() { return TILE_SIZE * scale; }
+
+    /**
+     * Redraws every visible tile.
+     */
+    public void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.GRAY);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawRegion(0, rows - 1, 0, cols - 1);
+    }
+
+    /**
+     * Draws the tiles of a region that fall inside the viewport.
+     */
+    private void drawRegion(int minRow, int maxRow, int minCol, int maxCol) {
+        double size = tileSize();
+        int firstRow = Math.max(minRow, (int)(offsetY / size));
+        int lastRow = Math.min(maxRow, (int)((offsetY + canvas.getHeight()) / size));
+        int firstCol = Math.max(minCol, (int)(offsetX / size));
+        int lastCol = Math.min(maxCol, (int)((offsetX + canvas.getWidth()) / size));
+
+        for (int row = firstRow ; row <= lastRow ; row++)
+            for (int col = firstCol ; col <= lastCol ; col++)
+                drawTile(row, col);
+    }
+
+    private void drawTile(int row, int col) {
+        double size = tileSize();
+        double x = col * size - offsetX;
+        double y = row * size - offsetY;
+        if (x + size <= 0 || y + size <= 0 || x >= canvas.getWidth() || y >= canvas.getHeight())
+            return;
+
+        char symbol;
+        try { symbol = game.getSymbol(row, col);
+        } catch (MinesweeperException me) { return; }
+
+        Image image = GameGUI.imageOf(symbol);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.drawImage(image, x, y, size, size);
+
+        if (image == GameGUI.TILE && symbol != ' ') {
+            gc.setFill(GameGUI.colorOf(symbol));
+            gc.fillText(String.valueOf(symbol), x + size / 2, y + size / 2);
+        }
+    }
+
+    /**
+     * Repaints the tiles a move changed. A change that is dense within its bounding box
+     * repaints the whole box, which is cheaper than visiting its tiles one by one.
+     * @param changes The tiles that changed.
+     */
+    @Override
+    public void tilesUpdated(BoardChange changes) {
+        if (changes.isWholeBoard()) {
+            redraw();
+            return;
+        }
+
+        long area = (long)(changes.getMaxRow() - changes.getMinRow() + 1)
+            * (changes.getMaxCol() - changes.getMinCol() + 1);
+        if (changes.size() * 2L >= area) {
+            drawRegion(changes.getMinRow(), changes.getMaxRow(), changes.getMinCol(), changes.getMaxCol());
+            return;
+        }
+
+        for (int i = 0 ; i < changes.size() ; i++)
+            drawTile(changes.getRow(i), changes.getCol(i));
+    }
+
+    /**
+     * Repaints the tile at the given location.
+     * @param loc The Location which changed.
+     */
+    @Override
+    public void tileUpdated(Location loc) {
+        drawTile(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Updates the move count and game status once per move.
+     * @param game The observed game.
+     */
+    @Override
+    public void gameUpdated(Minesweeper game) {
+        moveCount.setText("Moves: " + game.getMoveCount());
+        gameStatus.setText("Game Status: " + game.getGameState().toString());
+    }
+
+    /**
+     * Selects or flags the tile under the cursor.
+     */
+    private void clicked(MouseEvent event) {
+        double size = tileSize();
+        int row = (int)Math.floor((event.getY() + offsetY) / size);
+        int col = (int)Math.floor((event.getX() + offsetX) / size);
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            return;
+
+        Location loc = new Location(row, col);
+        if (event.getButton() == MouseButton.PRIMARY)
+            game.tryMakeSelection(loc);
+        else if (event.getButton() == MouseButton.SECONDARY)
+            game.tryFlag(loc);
+    }
+
+    /**
+     * Pans the viewport, or zooms around the cursor while Ctrl is held.
+     */
+    private void scrolled(ScrollEvent event) {
+        if (event.isControlDown()) {
+            double boardX = (event.getX() + offsetX) / scale;
+            double boardY = (event.getY() + offsetY) / scale;
+            setScale(scale * (event.getDeltaY() > 0 ? 1.25 : 0.8));
+            offsetX = boardX * scale - event.getX();
+            offsetY = boardY * scale - event.getY();
+        } else {
+            offsetX -= event.getDeltaX();
+            offsetY -= event.getDeltaY();
+        }
+
+        clampOffsets();
+        redraw();
+        event.consume();
+    }
+
+    private void setScale(double scale) {
+        this.scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+
+        Font font = GameGUI.MSF_FONT != null ? GameGUI.MSF_FONT : Font.getDefault();
+        canvas.getGraphicsContext2D().setFont(Font.font(font.getFamily(), FONT_SIZE * this.scale));
+    }
+
+    /**
+     * Keeps the viewport on the board.
+     */
+    private void clampOffsets() {
+        double size = tileSize();
+        offsetX = Math.max(0, Math.min(offsetX, cols * size - canvas.getWidth()));
+        offsetY = Math.max(0, Math.min(offsetY, rows * size - canvas.getHeight()));
+    }
+}
@@ -1,5 +1,9 @@
 package view;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.List;
 import java.util.Scanner;
 
@@ -7,10 +11,13 @@ import model.GameState;
 import model.Location;
 import model.Minesweeper;
 import model.MinesweeperException;
+import model.TextRenderer;
 
 public class Game {
-    public static void main(String[] args) throws MinesweeperException {
+    public static void main(String[] args) throws MinesweeperException, IOException {
         Minesweeper game = new Minesweeper(10, 10, 30);
+        TextRenderer renderer = new TextRenderer(game);
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
         System.out.println("Mine count: " + game.getMineCount());
         String commands = "Commands: \n\t help: this help message \n\t pick <row> <col>: uncovers cell at row, col \n\t hint: displays a safe selection \n\t reset: resets to a new game \n\t quit: quits the game";
         System.out.println(commands);
@@ -19,7 +26,7 @@ public class Game {
         while (game.getGameState() == GameState.IN_PROGRESS) {
 
             System.out.println();
-            System.out.println(game);
+            printBoard(renderer, out);
             System.out.println("Moves: " + game.getMoveCount());
             System.out.println("Enter a command: ");
 
@@ -36,13 +43,15 @@ public class Game {
             }
             else if(play.equals("reset")) {
                 game = new Minesweeper(10, 10, 30);
+                renderer = new TextRenderer(game);
                 continue;
             } 
             else if(play.equals("solve")) {
                 List<Location> solevSelections = game.solve();
                 for (Location loc : solevSelections) {
                     game.makeSelection(loc);
-                    System.out.println("\nSelected: (" + loc + ")\n" + game);
+                    System.out.println("\nSelected: (" + loc + ")");
+                    printBoard(renderer, out);
                 } break;
             }
             else {
@@ -60,9 +69,10 @@ public class Game {
                     if (kw.equals("pick"))
                         game.makeSelection(new Location(row, col));
 
-                } catch (Exception e) { // Catches invalid commands OR MinesweeperExceptions and prints to console:
-                    if ((e instanceof MinesweeperException) == false)
-                        System.err.println("Invalid command!");
+                } catch (MinesweeperException e) { // Invalid moves are reported here rather than by the model.
+                    System.err.println(e.getMessage());
+                } catch (Exception e) {
+                    System.err.println("Invalid command!");
                 }
             }
         }
@@ -70,12 +80,21 @@ public class Game {
         scanner.close();
         if (game.getGameState() == GameState.LOST){
             System.out.println("\nSorry you took the L mate");
-            System.out.println(game);
+            printBoard(renderer, out);
         }
         if (game.getGameState() == GameState.WON) {
             System.out.println("\nYou won, big W");
-            System.out.println(game);
+            printBoard(renderer, out);
         }
 
     }
+
+    /**
+     * Streams the board straight to the console rather than building it as one String.
+     */
+    private static void printBoard(TextRenderer renderer, PrintWriter out) throws IOException {
+        renderer.render(out);
+        out.println();
+        out.flush();
+    }
 }
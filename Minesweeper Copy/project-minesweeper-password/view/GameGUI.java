@@ -1,6 +1,7 @@
 package view;
 
 import java.util.List;
+import java.util.Map;
 
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -8,6 +9,7 @@ import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContentDisplay;
@@ -25,6 +27,7 @@ import javafx.scene.layout.Priority;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import model.AsyncObserver;
 import model.GameState;
 import model.Location;
 import model.Minesweeper;
@@ -39,8 +42,77 @@ public class GameGUI extends Application{
     public static final Image COVERED = new Image(IURL + "covered24.png");
     public static final Image DETONATED = new Image(IURL + "detonated24.png");
 
+    /*
+     * Boards with more tiles than this are drawn on a Canvas unless --renderer says otherwise.
+     */
+    private static final int CANVAS_THRESHOLD = 10_000;
+    private static final int CANVAS_WIDTH = 960;
+    private static final int CANVAS_HEIGHT = 720;
+
     public static final Font MSF_FONT = Font.loadFont("file:media/fonts/mine-sweeper.ttf", 11);
 
+    /**
+     * @param symbol A CLI symbol from Minesweeper.getSymbol.
+     * @return The image drawn for a tile showing that symbol.
+     */
+    public static Image imageOf(char symbol) {
+        switch (symbol) {
+            case '-':
+                return COVERED;
+
+            case 'F':
+                return FLAG;
+
+            case 'H':
+                return HINT;
+
+            case 'M':
+                return MINE;
+
+            case 'X':
+                return DETONATED;
+
+            default:
+                return TILE;
+        }
+    }
+
+    /**
+     * @param symbol A CLI symbol from Minesweeper.getSymbol.
+     * @return The colour of the number drawn on an uncovered tile.
+     */
+    public static Color colorOf(char symbol) {
+        switch (symbol) {
+            // Original Minesweeper # colors:
+            case '1':
+                return Color.BLUE;
+
+            case '2':
+                return Color.GREEN;
+
+            case '3':
+                return Color.RED;
+
+            case '4':
+                return Color.PURPLE;
+
+            case '5':
+                return Color.MAROON;
+
+            case '6':
+                return Color.TURQUOISE;
+
+            case '7':
+                return Color.BLACK;
+
+            case '8':
+                return Color.GRAY;
+
+            default:
+                return Color.WHITE;
+        }
+    }
+
     private Button makeMineButton(Minesweeper minesweeper, int col, int row) {
         Button tile = new Button();
 
@@ -87,25 +159,56 @@ public class GameGUI extends Application{
         return label;
     }
 
+    /**
+     * Builds the board out of one Button per tile, which only suits small boards.
+     * @return The grid of tile buttons.
+     */
+    private GridPane makeButtonGrid(Minesweeper game, Label moveCount, Label gameState) throws Exception {
+        MinesweeperUpdater updater = new MinesweeperUpdater(game, moveCount, gameState);
+        GridPane pane=new GridPane();
+
+        for (int col = 0 ; col < game.getCols() ; col++) {
+            for (int row = 0 ; row < game.getRows() ; row++) {
+                Button tile = makeMineButton(game, col, row);
+                pane.add(tile, col, row);
+
+                updater.setTileButton(row, col, tile);
+                tile.setOnMouseClicked(
+                    new SelectionHandler(
+                        new Location(row, col), game)
+                );
+            }
+        }
+
+        game.register(new AsyncObserver(game, updater, Platform::runLater));
+        return pane;
+    }
+
     @Override
     public void start(Stage stage) throws Exception {
-        Minesweeper game = new Minesweeper(15, 15, 45);
+        Map<String, String> params = getParameters().getNamed();
+        int rows = Integer.parseInt(params.getOrDefault("rows", "15"));
+        int cols = Integer.parseInt(params.getOrDefault("cols", "15"));
+        int mines = Integer.parseInt(params.getOrDefault("mines", "45"));
+        String renderer = params.getOrDefault("renderer",
+            (long)rows * cols > CANVAS_THRESHOLD ? "canvas" : "buttons");
+
+        Minesweeper game = new Minesweeper(rows, cols, mines);
 
         Button solve = makeControlButton("Solve", (arg) -> {
             if (game.getGameState() != GameState.IN_PROGRESS)
                 return;
 
-            List<Location> solveSelections = game.solve();
+            Minesweeper snapshot = new Minesweeper(game); // Copied here, where no move can land half way.
             new Thread(()-> { // Make new thread as to not interfere w/GUI.
+                List<Location> solveSelections = snapshot.solve();
                 for (Location loc : solveSelections) {
 
                     // Jump ship if the user steps in:
                     if (game.getGameState() != GameState.IN_PROGRESS)
                         break;
 
-                        Platform.runLater(() -> {
-                            try { game.makeSelection(loc);
-                            } catch (Exception e) { /* squash */ }});
+                        Platform.runLater(() -> game.tryMakeSelection(loc));
 
                         try { Thread.sleep(50);
                         } catch (Exception e) { /* squash */ }
@@ -119,23 +222,17 @@ public class GameGUI extends Application{
         Label moveCount = makeLabel("Moves: " + String.valueOf(game.getMoveCount()));
         Label mineCount = makeLabel("Mines: " + String.valueOf(game.getMineCount()));
 
-        MinesweeperUpdater updater = new MinesweeperUpdater(game, moveCount, gameState);
-        GridPane pane=new GridPane();
-
-        for (int col = 0 ; col < game.getCols() ; col++) {
-            for (int row = 0 ; row < game.getRows() ; row++) {
-                Button tile = makeMineButton(game, col, row);
-                pane.add(tile, col, row);
-
-                updater.setTileButton(row, col, tile);
-                tile.setOnMouseClicked(
-                    new SelectionHandler(
-                        new Location(row, col), game)
-                );
-            }
-        } 
-        
-        game.register(updater);
+        Node board;
+        if (renderer.equals("canvas")) {
+            BoardCanvas canvas = new BoardCanvas(game,
+                Math.min(cols * BoardCanvas.TILE_SIZE, CANVAS_WIDTH),
+                Math.min(rows * BoardCanvas.TILE_SIZE, CANVAS_HEIGHT),
+                moveCount, gameState);
+            game.register(new AsyncObserver(game, canvas, Platform::runLater));
+            board = canvas.getCanvas();
+        } else {
+            board = makeButtonGrid(game, moveCount, gameState);
+        }
 
         HBox gameStatus = new HBox();
         gameStatus.getChildren().addAll(gameState);
@@ -146,7 +243,7 @@ public class GameGUI extends Application{
         BorderPane window = new BorderPane();
         window.setBottom(gameStatus);
         window.setTop(controls);
-        window.setCenter(pane);
+        window.setCenter(board);
 
         stage.setTitle("Minesweeper");
         stage.setScene(new Scene(window));
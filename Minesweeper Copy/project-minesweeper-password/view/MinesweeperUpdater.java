@@ -32,7 +32,7 @@ public class MinesweeperUpdater implements MinesweeperObserver {
         this.moveCount = moveCount;
         this.gameStatus = gameStatus;
 
-        tileButtons = new Button[rows][cols];
+        tileButtons = new Button[cols][rows];
     }
 
     /**
@@ -54,81 +54,31 @@ public class MinesweeperUpdater implements MinesweeperObserver {
      */
     @Override
     public void tileUpdated(Location loc) {
-        Color color = Color.WHITE;
-        String text = "";
-        Image image;
-
         try {
             char symbol = game.getSymbol(loc);
-            switch (symbol) {
-                case '-':
-                    image = GameGUI.COVERED;
-                    break;
-
-                case 'F':
-                    image = GameGUI.FLAG;
-                    break;
-
-                case 'H':
-                    image = GameGUI.HINT;
-                    break;
-                
-                case 'M':
-                    image = GameGUI.MINE;
-                    break;
-
-                case 'X':
-                    image = GameGUI.DETONATED;
-                    break;
-
-                default:
-                    image = GameGUI.TILE;
-                    text += symbol;
-
-                    switch (symbol) {
-                        // Original Minesweeper # colors:
-                        case '1':
-                            color = Color.BLUE;
-                            break;
-
-                        case '2':
-                            color = Color.GREEN;
-                            break;
-
-                        case '3':
-                            color = Color.RED;
-                            break;
-
-                        case '4':
-                            color = Color.PURPLE;
-                            break;
-
-                        case '5':
-                            color = Color.MAROON;
-                            break;
-
-                        case '6':
-                            color = Color.TURQUOISE;
-                            break;
-
-                        case '7':
-                            color = Color.BLACK;
-                            break;
-
-                        case '8':
-                            color = Color.GRAY;
-                            break;
-                    }
-            }
+            Image image = GameGUI.imageOf(symbol);
+            Color color = GameGUI.colorOf(symbol);
+            String text = (image == GameGUI.TILE) ? String.valueOf(symbol) : "";
 
             Button tile = tileButtons[loc.getCol()][loc.getRow()];
-            tile.setGraphic(new ImageView(image));
+            ImageView view = (ImageView)tile.getGraphic();
+            if (view == null)
+                tile.setGraphic(new ImageView(image));
+            else // Reuse the tile's ImageView rather than building one per update.
+                view.setImage(image);
             tile.setTextFill(color);
             tile.setText(text);
 
-            moveCount.setText(String.valueOf("Moves: " + game.getMoveCount()));
-            gameStatus.setText("Game Status: " + game.getGameState().toString());
-
         } catch (Exception e) { System.err.println(e); }
     }
+
+    /**
+     * Updates the move count and game status once per move.
+     * @param game The observed game.
+     */
+    @Override
+    public void gameUpdated(Minesweeper game) {
+        moveCount.setText(String.valueOf("Moves: " + game.getMoveCount()));
+        gameStatus.setText("Game Status: " + game.getGameState().toString());
+    }
 }
@@ -5,7 +5,6 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import model.Location;
 import model.Minesweeper;
-import model.MinesweeperException;
 
 public class SelectionHandler implements EventHandler<MouseEvent>{
     private Location loc;
@@ -19,11 +18,9 @@ public class SelectionHandler implements EventHandler<MouseEvent>{
     @Override
     public void handle(MouseEvent arg0) {
         MouseButton button = arg0.getButton();
-        try {
-            if (button == MouseButton.PRIMARY)
-                game.makeSelection(loc);
-            else if (button == MouseButton.SECONDARY)
-                game.flag(loc);
-        } catch (MinesweeperException me) { /* squash */ }
+        if (button == MouseButton.PRIMARY)
+            game.tryMakeSelection(loc);
+        else if (button == MouseButton.SECONDARY)
+            game.tryFlag(loc);
     }
 } 
\ No newline at end of file